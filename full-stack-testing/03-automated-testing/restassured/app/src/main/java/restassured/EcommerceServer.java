@@ -0,0 +1,52 @@
+package restassured;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * An ecommerce.App running inside this JVM on a free port. Every instance
+ * has its own application context and therefore its own in-memory catalog,
+ * starting from the seed items only.
+ */
+public class EcommerceServer implements AutoCloseable {
+
+  private final ConfigurableApplicationContext context;
+  private final int port;
+
+  private EcommerceServer(ConfigurableApplicationContext context) {
+    this.context = context;
+    this.port = ((WebServerApplicationContext) context).getWebServer().getPort();
+  }
+
+  /**
+   * Starts a server; properties such as {@code spring.threads.virtual.enabled=true}
+   * override the application's own.
+   */
+  public static EcommerceServer start(String... properties) {
+    List<String> all = new ArrayList<>(List.of(
+        "server.port=0",
+        "spring.main.banner-mode=off",
+        "logging.level.root=WARN"));
+    all.addAll(List.of(properties));
+    return new EcommerceServer(new SpringApplicationBuilder(ecommerce.App.class)
+        .properties(all.toArray(String[]::new))
+        .run());
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  public String getBaseUri() {
+    return "http://localhost:" + port;
+  }
+
+  @Override
+  public void close() {
+    context.close();
+  }
+}
@@ -0,0 +1,93 @@
+package restassured;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Several independent EcommerceServer instances that callers are spread
+ * over round-robin, so concurrent clients rarely share a server.
+ */
+public class ServerShards implements AutoCloseable {
+
+  private final List<EcommerceServer> servers;
+  private final AtomicInteger next = new AtomicInteger();
+
+  private ServerShards(List<EcommerceServer> servers) {
+    this.servers = List.copyOf(servers);
+  }
+
+  /**
+   * Starts count servers. The first starts alone so that class loading and
+   * Spring Boot's JVM-wide logging setup happen once; the rest then start
+   * in parallel. If any fails, the ones that did start are closed.
+   */
+  public static ServerShards start(int count, String... properties) {
+    if (count < 1) {
+      throw new IllegalArgumentException("count must be at least 1");
+    }
+    List<EcommerceServer> servers = new ArrayList<>(count);
+    servers.add(EcommerceServer.start(properties));
+    if (count == 1) {
+      return new ServerShards(servers);
+    }
+    ExecutorService starters = Executors.newFixedThreadPool(count - 1);
+    try {
+      List<Future<EcommerceServer>> started = new ArrayList<>(count - 1);
+      for (int i = 1; i < count; i++) {
+        started.add(starters.submit(() -> EcommerceServer.start(properties)));
+      }
+      // Waits for every start, even if interrupted, so none is left running
+      RuntimeException failure = null;
+      boolean interrupted = false;
+      for (Future<EcommerceServer> future : started) {
+        while (true) {
+          try {
+            servers.add(future.get());
+            break;
+          } catch (InterruptedException e) {
+            interrupted = true;
+          } catch (ExecutionException e) {
+            if (failure == null) {
+              failure = e.getCause() instanceof RuntimeException cause
+                  ? cause
+                  : new IllegalStateException("Server failed to start", e.getCause());
+            }
+            break;
+          }
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      if (failure != null) {
+        servers.forEach(EcommerceServer::close);
+        throw failure;
+      }
+    } finally {
+      starters.shutdown();
+    }
+    return new ServerShards(servers);
+  }
+
+  public EcommerceServer next() {
+    return servers.get(Math.floorMod(next.getAndIncrement(), servers.size()));
+  }
+
+  public List<EcommerceServer> servers() {
+    return servers;
+  }
+
+  public int size() {
+    return servers.size();
+  }
+
+  @Override
+  public void close() {
+    servers.forEach(EcommerceServer::close);
+  }
+}
@@ -0,0 +1,168 @@
+package restassured.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Drives GET /items and POST /items at a fixed target rate, each request
+ * from its own virtual thread.
+ *
+ * Every request has an intended start time on the schedule, and its latency
+ * is measured from that time, not from when it was actually sent. A stalled
+ * server therefore shows up as the queueing delay the schedule's later
+ * requests would have seen, instead of silently pausing the schedule
+ * (coordinated omission). The plain send-to-response time is kept
+ * separately as service time.
+ */
+public class LoadGenerator {
+
+  public enum Mode {
+    // A fixed number of users, each sending its next request when the
+    // previous one completed and its own share of the rate is due
+    CLOSED,
+    // Requests start on a fixed arrival schedule however many are in flight
+    OPEN
+  }
+
+  public enum Endpoint {
+    GET,
+    POST
+  }
+
+  // Seed SKUs start with 984, items created under load list after them
+  private static final String SKU_PREFIX = "99" + System.currentTimeMillis();
+
+  private final HttpClient client;
+  private final URI items;
+  private final double postRatio;
+  private final AtomicLong skus = new AtomicLong();
+
+  public LoadGenerator(String baseUri, double postRatio) {
+    this.client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    this.items = URI.create(baseUri + "/items");
+    this.postRatio = postRatio;
+  }
+
+  /**
+   * Runs for the given duration at rate requests per second; users only
+   * applies to CLOSED.
+   */
+  public Result run(Mode mode, double rate, int users, Duration duration) throws InterruptedException {
+    Run run = new Run();
+    long intervalNanos = (long) (1e9 / rate);
+    long durationNanos = duration.toNanos();
+    long start = System.nanoTime();
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+      if (mode == Mode.OPEN) {
+        for (long i = 0; i * intervalNanos < durationNanos; i++) {
+          long intended = start + i * intervalNanos;
+          parkUntil(intended);
+          clients.execute(() -> call(intended, run));
+        }
+      } else {
+        long userInterval = intervalNanos * users;
+        for (int u = 0; u < users; u++) {
+          // Staggered so users do not fire in lockstep
+          long first = start + u * intervalNanos;
+          clients.execute(() -> {
+            for (long intended = first; intended - start < durationNanos; intended += userInterval) {
+              parkUntil(intended);
+              call(intended, run);
+            }
+          });
+        }
+      }
+    }
+    return new Result(mode, (System.nanoTime() - start) / 1e9, run.latency, run.service, run.errors.sum());
+  }
+
+  private void call(long intended, Run run) {
+    Endpoint endpoint = ThreadLocalRandom.current().nextDouble() < postRatio ? Endpoint.POST : Endpoint.GET;
+    HttpRequest.Builder request = HttpRequest.newBuilder(items).timeout(Duration.ofSeconds(30));
+    if (endpoint == Endpoint.POST) {
+      String sku = SKU_PREFIX + skus.incrementAndGet();
+      request.header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString(
+              "{\"sku\":\"" + sku + "\",\"color\":\"Yellow\",\"size\":\"XS\"}"));
+    } else {
+      request.GET();
+    }
+    long sent = System.nanoTime();
+    boolean ok;
+    try {
+      int status = client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+      ok = status >= 200 && status < 300;
+    } catch (Exception e) {
+      ok = false;
+    }
+    long done = System.nanoTime();
+    if (!ok) {
+      run.errors.increment();
+    }
+    run.latency.get(endpoint).recordValue(done - intended);
+    run.service.get(endpoint).recordValue(done - sent);
+  }
+
+  private static void parkUntil(long deadline) {
+    long remaining;
+    while ((remaining = deadline - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(remaining);
+    }
+  }
+
+  private static class Run {
+    final Map<Endpoint, Histogram> latency = histograms();
+    final Map<Endpoint, Histogram> service = histograms();
+    final LongAdder errors = new LongAdder();
+
+    private static Map<Endpoint, Histogram> histograms() {
+      Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+      for (Endpoint endpoint : Endpoint.values()) {
+        // Nanosecond values, 3 significant digits, resized as needed
+        histograms.put(endpoint, new ConcurrentHistogram(3));
+      }
+      return histograms;
+    }
+  }
+
+  /**
+   * Latency (from the intended start, corrected for coordinated omission)
+   * and service time (from the actual send) per endpoint, in nanoseconds.
+   */
+  public record Result(Mode mode, double seconds, Map<Endpoint, Histogram> latency,
+      Map<Endpoint, Histogram> service, long errors) {
+
+    public long requests() {
+      return latency.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    public double throughput() {
+      return requests() / seconds;
+    }
+
+    public double latencyMillis(Endpoint endpoint, double percentile) {
+      return latency.get(endpoint).getValueAtPercentile(percentile) / 1e6;
+    }
+
+    public double serviceMillis(Endpoint endpoint, double percentile) {
+      return service.get(endpoint).getValueAtPercentile(percentile) / 1e6;
+    }
+  }
+}
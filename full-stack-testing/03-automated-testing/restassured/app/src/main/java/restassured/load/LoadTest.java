@@ -0,0 +1,161 @@
+package restassured.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import restassured.EcommerceServer;
+import restassured.load.LoadGenerator.Endpoint;
+import restassured.load.LoadGenerator.Mode;
+
+/**
+ * Load-generation mode of this module, run with {@code ./gradlew loadTest}.
+ * Starts an ecommerce.App in this JVM (or targets {@code load.target}),
+ * warms it up, drives it in each requested mode and reports throughput and
+ * latency percentiles. Full latency distributions are written as .hgrm
+ * files to {@code load.output}.
+ *
+ * Exits with status 1, failing the build, when a request failed, when any
+ * p99 exceeds {@code load.maxP99Millis}, or when it regressed by more than
+ * {@code load.tolerance} against the recorded baseline. Set
+ * {@code load.recordBaseline=true} to record the current run as the new
+ * baseline.
+ */
+public class LoadTest {
+
+  private static final double[] PERCENTILES = { 50.0, 90.0, 99.0, 99.9, 100.0 };
+
+  public static void main(String[] args) throws Exception {
+    String modes = System.getProperty("load.mode", "closed,open");
+    double rate = Double.parseDouble(System.getProperty("load.rate", "500"));
+    int users = Integer.getInteger("load.users", 50);
+    Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+    double postRatio = Double.parseDouble(System.getProperty("load.postRatio", "0.1"));
+    double maxP99Millis = Double.parseDouble(System.getProperty("load.maxP99Millis", "100"));
+    double tolerance = Double.parseDouble(System.getProperty("load.tolerance", "0.25"));
+    Path baseline = Path.of(System.getProperty("load.baseline", "load-baseline.properties"));
+    Path output = Path.of(System.getProperty("load.output", "build/results/load"));
+    boolean recordBaseline = Boolean.getBoolean("load.recordBaseline");
+    String target = System.getProperty("load.target");
+
+    EcommerceServer server = target == null
+        ? EcommerceServer.start("spring.threads.virtual.enabled=" + Boolean.getBoolean("load.virtualThreads"))
+        : null;
+    List<LoadGenerator.Result> results = new ArrayList<>();
+    try {
+      LoadGenerator generator = new LoadGenerator(target == null ? server.getBaseUri() : target, postRatio);
+      for (String name : modes.split(",")) {
+        Mode mode = Mode.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        // Same load, results discarded: JIT, connection pools, catalog cache
+        generator.run(mode, rate, users, warmup);
+        LoadGenerator.Result result = generator.run(mode, rate, users, duration);
+        print(result, rate, users);
+        write(result, output);
+        results.add(result);
+      }
+    } finally {
+      if (server != null) {
+        server.close();
+      }
+    }
+
+    Properties current = p99s(results);
+    if (recordBaseline) {
+      try (Writer out = Files.newBufferedWriter(baseline)) {
+        current.store(out, "p99 latency in ms per mode and endpoint, rate " + rate + "/s, " + users + " users");
+      }
+      System.out.println("Recorded baseline " + baseline.toAbsolutePath());
+      return;
+    }
+    List<String> failures = check(results, current, baseline, maxP99Millis, tolerance);
+    failures.forEach(failure -> System.out.println("FAILED: " + failure));
+    if (!failures.isEmpty()) {
+      System.exit(1);
+    }
+  }
+
+  private static void print(LoadGenerator.Result result, double rate, int users) {
+    System.out.printf("%n%s loop, target %.0f req/s%s: %d requests, %.0f req/s, %d errors%n",
+        result.mode().name().toLowerCase(Locale.ROOT), rate,
+        result.mode() == Mode.CLOSED ? ", " + users + " users" : "",
+        result.requests(), result.throughput(), result.errors());
+    System.out.printf("  %-5s %8s %9s %9s %9s %9s %9s %13s%n",
+        "", "count", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "service p99");
+    for (Endpoint endpoint : Endpoint.values()) {
+      System.out.printf("  %-5s %8d", endpoint, result.latency().get(endpoint).getTotalCount());
+      for (double percentile : PERCENTILES) {
+        System.out.printf(" %9.2f", result.latencyMillis(endpoint, percentile));
+      }
+      System.out.printf(" %13.2f%n", result.serviceMillis(endpoint, 99.0));
+    }
+  }
+
+  // HdrHistogram's percentile distribution format, in milliseconds, for
+  // plotting or comparing runs with the HdrHistogram tooling
+  private static void write(LoadGenerator.Result result, Path output) throws IOException {
+    Files.createDirectories(output);
+    for (Endpoint endpoint : Endpoint.values()) {
+      String name = result.mode().name().toLowerCase(Locale.ROOT) + "-" + endpoint.name().toLowerCase(Locale.ROOT);
+      try (PrintStream out = new PrintStream(Files.newOutputStream(output.resolve(name + ".hgrm")))) {
+        result.latency().get(endpoint).outputPercentileDistribution(out, 1e6);
+      }
+      try (PrintStream out = new PrintStream(Files.newOutputStream(output.resolve(name + "-service.hgrm")))) {
+        result.service().get(endpoint).outputPercentileDistribution(out, 1e6);
+      }
+    }
+  }
+
+  private static Properties p99s(List<LoadGenerator.Result> results) {
+    Properties p99s = new Properties();
+    for (LoadGenerator.Result result : results) {
+      for (Endpoint endpoint : Endpoint.values()) {
+        if (result.latency().get(endpoint).getTotalCount() > 0) {
+          p99s.setProperty(key(result.mode(), endpoint), String.format(Locale.ROOT, "%.3f",
+              result.latencyMillis(endpoint, 99.0)));
+        }
+      }
+    }
+    return p99s;
+  }
+
+  private static List<String> check(List<LoadGenerator.Result> results, Properties current, Path baselineFile,
+      double maxP99Millis, double tolerance) throws IOException {
+    List<String> failures = new ArrayList<>();
+    for (LoadGenerator.Result result : results) {
+      if (result.errors() > 0) {
+        failures.add(result.mode() + ": " + result.errors() + " requests failed");
+      }
+    }
+    Properties baseline = new Properties();
+    if (Files.exists(baselineFile)) {
+      try (Reader in = Files.newBufferedReader(baselineFile)) {
+        baseline.load(in);
+      }
+    }
+    for (String key : current.stringPropertyNames()) {
+      double p99 = Double.parseDouble(current.getProperty(key));
+      if (p99 > maxP99Millis) {
+        failures.add(String.format("%s p99 %.2f ms exceeds %.2f ms", key, p99, maxP99Millis));
+      }
+      String previous = baseline.getProperty(key);
+      if (previous != null && p99 > Double.parseDouble(previous) * (1 + tolerance)) {
+        failures.add(String.format("%s p99 %.2f ms regressed more than %.0f%% from the baseline %s ms",
+            key, p99, tolerance * 100, previous));
+      }
+    }
+    return failures;
+  }
+
+  private static String key(Mode mode, Endpoint endpoint) {
+    return mode.name().toLowerCase(Locale.ROOT) + "." + endpoint.name().toLowerCase(Locale.ROOT) + ".p99";
+  }
+}
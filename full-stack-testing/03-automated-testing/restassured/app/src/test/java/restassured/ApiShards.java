@@ -0,0 +1,61 @@
+package restassured;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.LogConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * Resolves a RequestSpecification pointing at one of the server shards.
+ * The shards are started on first use and shared by every test class in the
+ * JVM; JUnit closes them when the run ends. With {@code -Dapi.port} set, all
+ * tests target that already running server instead.
+ */
+public class ApiShards implements ParameterResolver {
+
+  // Each shard is a full application context; more than a couple cost
+  // more startup than the few API test classes win back
+  private static final int DEFAULT_SHARDS = 2;
+
+  private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ApiShards.class);
+
+  private record Shards(ServerShards servers) implements ExtensionContext.Store.CloseableResource {
+    @Override
+    public void close() {
+      servers.close();
+    }
+  }
+
+  @Override
+  public boolean supportsParameter(ParameterContext parameter, ExtensionContext context) {
+    return parameter.getParameter().getType() == RequestSpecification.class;
+  }
+
+  @Override
+  public Object resolveParameter(ParameterContext parameter, ExtensionContext context) {
+    Integer port = Integer.getInteger("api.port");
+    if (port == null) {
+      port = shards(context).next().getPort();
+    }
+    return new RequestSpecBuilder()
+        .setBaseUri("http://localhost")
+        .setPort(port)
+        .setBasePath("/")
+        // Per specification rather than through RestAssured's static
+        // defaults, which concurrent tests would share
+        .setConfig(RestAssuredConfig.config()
+            .logConfig(LogConfig.logConfig().enableLoggingOfRequestAndResponseIfValidationFails()))
+        .build();
+  }
+
+  private static ServerShards shards(ExtensionContext context) {
+    int count = Integer.getInteger("api.shards",
+        Math.min(DEFAULT_SHARDS, Runtime.getRuntime().availableProcessors()));
+    return context.getRoot().getStore(NAMESPACE)
+        .getOrComputeIfAbsent(Shards.class, key -> new Shards(ServerShards.start(count)), Shards.class)
+        .servers();
+  }
+}
@@ -13,7 +13,7 @@ class ItemAPITest extends TestConfig {
 
   @Test
   void getAllItems_ShouldReturn200WithItemsList() {
-    given()
+    given(api)
         .when()
         .get("/items")
         .then()
@@ -26,7 +26,7 @@ class ItemAPITest extends TestConfig {
 
   @Test
   void getAllItems_ShouldContainSpecificItem() {
-    Response response = given()
+    Response response = given(api)
         .when()
         .get("/items")
         .then()
@@ -44,7 +44,7 @@ class ItemAPITest extends TestConfig {
 
   @Test
   void getAllItems_ShouldHaveCorrectContentType() {
-    given()
+    given(api)
         .when()
         .get("/items")
         .then()
@@ -54,7 +54,7 @@ class ItemAPITest extends TestConfig {
 
   @Test
   void getAllItems_ShouldHaveExpectedStructure() {
-    given()
+    given(api)
         .when()
         .get("/items")
         .then()
@@ -65,22 +65,24 @@ class ItemAPITest extends TestConfig {
 
   @Test
   void createItem_ShouldReturn201WithCreatedItem() {
+    // A fresh SKU per run, listed after the seed items the other tests read
+    String sku = uniqueSku();
     String requestBody = """
         {
-            "sku": "987654321",
+            "sku": "%s",
             "color": "Yellow",
             "size": "XS"
         }
-        """;
+        """.formatted(sku);
 
-    given()
+    given(api)
         .contentType(JSON)
         .body(requestBody)
         .when()
         .post("/items")
         .then()
         .statusCode(201)
-        .body("sku", equalTo("987654321"))
+        .body("sku", equalTo(sku))
         .body("color", equalTo("Yellow"))
         .body("size", equalTo("XS"));
   }
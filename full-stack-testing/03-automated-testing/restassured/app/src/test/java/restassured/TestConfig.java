@@ -1,18 +1,30 @@
 package restassured;
 
-import io.restassured.RestAssured;
-import org.junit.jupiter.api.BeforeAll;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(ApiShards.class)
 public class TestConfig {
 
-  @BeforeAll
-  public static void setup() {
-    // Configure REST Assured to point to your running API
-    RestAssured.baseURI = "http://localhost";
-    RestAssured.port = 4000;
-    RestAssured.basePath = "/";
+  // Seed SKUs start with 984, so created items always list after them
+  private static final String SKU_PREFIX = "99" + System.currentTimeMillis();
+  private static final AtomicInteger skus = new AtomicInteger();
+
+  // Base URI, port and logging for the server shard this test runs against
+  protected RequestSpecification api;
+
+  @BeforeEach
+  public void setup(RequestSpecification api) {
+    this.api = api;
+  }
 
-    // Enable logging if validation fails
-    RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+  /**
+   * A SKU no other test, and no earlier run against the same server, uses.
+   */
+  protected static String uniqueSku() {
+    return SKU_PREFIX + String.format("%04d", skus.incrementAndGet());
   }
 }
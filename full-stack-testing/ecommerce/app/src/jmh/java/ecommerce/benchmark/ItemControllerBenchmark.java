@@ -0,0 +1,79 @@
+package ecommerce.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ecommerce.controller.ItemController;
+import ecommerce.model.Item;
+import ecommerce.repository.ItemRepository;
+import ecommerce.service.ItemService;
+
+/**
+ * Full MVC dispatch (mapping, argument resolution, message conversion)
+ * through MockMvc, without a servlet container or network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ItemControllerBenchmark {
+
+  @Param({ "1000", "100000" })
+  int catalogSize;
+
+  private MockMvc mockMvc;
+  private final AtomicLong nextSku = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ItemService itemService = new ItemService(new ItemRepository());
+    List<Item> items = new ArrayList<>(catalogSize);
+    for (int i = 0; i < catalogSize; i++) {
+      items.add(ItemServiceBenchmark.item(ItemServiceBenchmark.FIRST_SKU + i));
+    }
+    itemService.createItems(items);
+    nextSku.set(ItemServiceBenchmark.FIRST_SKU + catalogSize);
+    mockMvc = MockMvcBuilders.standaloneSetup(new ItemController(itemService, new ObjectMapper())).build();
+  }
+
+  @Benchmark
+  public MvcResult getAllItems() throws Exception {
+    return mockMvc.perform(get("/items")).andReturn();
+  }
+
+  @Benchmark
+  public MvcResult getItem() throws Exception {
+    long sku = ItemServiceBenchmark.FIRST_SKU + ThreadLocalRandom.current().nextInt(catalogSize);
+    return mockMvc.perform(get("/items/" + sku)).andReturn();
+  }
+
+  @Benchmark
+  public MvcResult createItem() throws Exception {
+    long sku = nextSku.getAndIncrement();
+    return mockMvc.perform(post("/items")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"sku\":\"" + sku + "\",\"color\":\"Black\",\"size\":\"XL\"}"))
+        .andReturn();
+  }
+}
@@ -0,0 +1,71 @@
+package ecommerce.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import ecommerce.model.Item;
+
+/**
+ * Jackson cost of the {@link Item} wire format: one item each way, and a
+ * listing of {@code listSize} items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemJsonBenchmark {
+
+  @Param({ "1000", "100000" })
+  int listSize;
+
+  private ObjectWriter itemWriter;
+  private ObjectReader itemReader;
+  private ObjectWriter listWriter;
+  private Item item;
+  private byte[] itemJson;
+  private List<Item> items;
+
+  @Setup
+  public void setUp() throws JsonProcessingException {
+    ObjectMapper mapper = new ObjectMapper();
+    itemWriter = mapper.writerFor(Item.class);
+    itemReader = mapper.readerFor(Item.class);
+    listWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Item.class));
+    item = ItemServiceBenchmark.item(ItemServiceBenchmark.FIRST_SKU);
+    itemJson = itemWriter.writeValueAsBytes(item);
+    items = new ArrayList<>(listSize);
+    for (int i = 0; i < listSize; i++) {
+      items.add(ItemServiceBenchmark.item(ItemServiceBenchmark.FIRST_SKU + i));
+    }
+  }
+
+  @Benchmark
+  public byte[] serializeItem() throws JsonProcessingException {
+    return itemWriter.writeValueAsBytes(item);
+  }
+
+  @Benchmark
+  public Item deserializeItem() throws Exception {
+    return itemReader.readValue(itemJson);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public byte[] serializeList() throws JsonProcessingException {
+    return listWriter.writeValueAsBytes(items);
+  }
+}
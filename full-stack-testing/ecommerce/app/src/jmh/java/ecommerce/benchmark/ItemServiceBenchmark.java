@@ -0,0 +1,87 @@
+package ecommerce.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ecommerce.model.Item;
+import ecommerce.repository.ItemRepository;
+import ecommerce.service.CatalogSnapshot;
+import ecommerce.service.ItemService;
+
+/**
+ * Service-layer reads and writes against an in-memory catalog of
+ * {@code catalogSize} items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ItemServiceBenchmark {
+
+  static final String[] COLORS = { "Black", "White", "Red", "Green", "Blue", "Yellow" };
+  static final String[] SIZES = { "XS", "S", "M", "L", "XL", "XXL" };
+  static final long FIRST_SKU = 100_000_000L;
+
+  @Param({ "1000", "100000", "1000000" })
+  int catalogSize;
+
+  ItemService itemService;
+
+  // New SKUs for createItem, above the seeded range so every write succeeds
+  private final AtomicLong nextSku = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    itemService = new ItemService(new ItemRepository());
+    List<Item> items = new ArrayList<>(catalogSize);
+    for (int i = 0; i < catalogSize; i++) {
+      items.add(item(FIRST_SKU + i));
+    }
+    itemService.createItems(items);
+    nextSku.set(FIRST_SKU + catalogSize);
+  }
+
+  @Benchmark
+  public List<Item> getAllItems() {
+    return itemService.getAllItems();
+  }
+
+  @Benchmark
+  public List<Item> findItems() {
+    return itemService.findItems("Red", "M");
+  }
+
+  @Benchmark
+  public CatalogSnapshot getCatalogSnapshot() {
+    return itemService.getCatalogSnapshot();
+  }
+
+  @Benchmark
+  public Optional<Item> getItem() {
+    long sku = FIRST_SKU + ThreadLocalRandom.current().nextInt(catalogSize);
+    return itemService.getItem(String.valueOf(sku));
+  }
+
+  @Benchmark
+  public Item createItem() {
+    return itemService.createItem(item(nextSku.getAndIncrement()));
+  }
+
+  static Item item(long sku) {
+    int i = (int) (sku % 36);
+    return new Item(String.valueOf(sku), COLORS[i % COLORS.length], SIZES[i / COLORS.length]);
+  }
+}
@@ -1,33 +1,129 @@
 package ecommerce.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import ecommerce.model.BatchResult;
 import ecommerce.model.Item;
+import ecommerce.model.ItemPage;
+import ecommerce.model.ItemResult;
+import ecommerce.service.CatalogSnapshot;
+import ecommerce.service.DuplicateItemException;
 import ecommerce.service.ItemService;
 
 @RestController
 @RequestMapping("/items")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemController {
 
+  // Items written between explicit flushes while streaming
+  private static final int STREAM_FLUSH_EVERY = 512;
+
+  // Items handed to the service per bulk write
+  public static final int BATCH_CHUNK_SIZE = 1000;
+
   private final ItemService itemService;
+  private final ObjectReader itemReader;
+  private final ObjectWriter itemWriter;
 
   @Autowired
-  public ItemController(ItemService itemService) {
+  public ItemController(ItemService itemService, ObjectMapper objectMapper) {
     this.itemService = itemService;
+    this.itemReader = objectMapper.readerFor(Item.class);
+    // The servlet container owns the response stream, Jackson must not close it
+    this.itemWriter = objectMapper.writerFor(Item.class)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
   }
 
   @GetMapping
-  public List<Item> getAllItems() {
-    return itemService.getAllItems();
+  public ResponseEntity<?> getAllItems(
+      @RequestParam(required = false) String color,
+      @RequestParam(required = false) String size,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      WebRequest request) {
+    // Only the unfiltered listing is also served gzip-encoded
+    boolean unfiltered = color == null && size == null;
+    boolean gzip = unfiltered && acceptsGzip(acceptEncoding);
+    if (checkNotModified(request, gzip, unfiltered)) {
+      // 304 already written, nothing to serialize
+      return null;
+    }
+    if (unfiltered) {
+      return catalogSnapshot(gzip);
+    }
+    return ResponseEntity.ok(itemService.findItems(color, size));
+  }
+
+  @GetMapping(params = "limit")
+  public ItemPage getItemPage(
+      @RequestParam int limit,
+      @RequestParam(required = false) String after,
+      WebRequest request) {
+    if (checkNotModified(request, false, false)) {
+      return null;
+    }
+    return itemService.getItemPage(after, limit);
+  }
+
+  /**
+   * Streams the whole catalog in SKU order without materializing it: NDJSON
+   * when the client accepts application/x-ndjson, otherwise a chunked JSON
+   * array.
+   */
+  @GetMapping("/stream")
+  public ResponseEntity<StreamingResponseBody> streamItems(
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    if (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE)) {
+      return ResponseEntity.ok()
+          .contentType(MediaType.APPLICATION_NDJSON)
+          .body(out -> {
+            // Separators go between values, NDJSON also ends the last line
+            if (writeItems(itemWriter.withRootValueSeparator("\n").writeValues(out)) > 0) {
+              out.write('\n');
+            }
+          });
+    }
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(out -> writeItems(itemWriter.writeValuesAsArray(out)));
+  }
+
+  @GetMapping("/{sku}")
+  public ResponseEntity<Item> getItem(@PathVariable String sku) {
+    return ResponseEntity.of(itemService.getItem(sku));
   }
 
   @PostMapping
@@ -35,4 +131,160 @@ public class ItemController {
     Item createdItem = itemService.createItem(newItem);
     return new ResponseEntity<>(createdItem, HttpStatus.CREATED);
   }
+
+  /**
+   * Bulk ingestion from a JSON array or an NDJSON stream. The body is parsed
+   * incrementally and written in chunks of {@value #BATCH_CHUNK_SIZE}, so the
+   * request is never held in memory as a whole. Responds 201 when every item
+   * was created, 207 with per-item results otherwise. A body that turns
+   * malformed part way still gets 207: the items before the bad input are
+   * written and reported, followed by one 400 result where reading stopped.
+   */
+  @PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+  public ResponseEntity<BatchResult> createItems(InputStream body) throws IOException {
+    List<ItemResult> results = new ArrayList<>();
+    List<Item> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+    int chunkStart = 0;
+
+    // A top-level array is unwrapped, so both formats read as a sequence
+    try (MappingIterator<Item> items = itemReader.readValues(body)) {
+      while (true) {
+        Item item;
+        try {
+          if (!items.hasNextValue()) {
+            break;
+          }
+          item = items.nextValue();
+        } catch (JsonMappingException e) {
+          // Well-formed JSON that does not bind to an Item fails on its own;
+          // the iterator resyncs to the next value.
+          flushChunk(chunk, chunkStart, results);
+          results.add(new ItemResult(results.size(), null, 400, e.getOriginalMessage()));
+          chunkStart = results.size();
+          continue;
+        } catch (JsonParseException e) {
+          // Nothing after a syntax error can be read. Earlier chunks are
+          // already written, so report them rather than fail the batch.
+          flushChunk(chunk, chunkStart, results);
+          results.add(new ItemResult(results.size(), null, 400, e.getOriginalMessage()));
+          break;
+        }
+        chunk.add(item);
+        if (chunk.size() == BATCH_CHUNK_SIZE) {
+          flushChunk(chunk, chunkStart, results);
+          chunkStart = results.size();
+        }
+      }
+    }
+    flushChunk(chunk, chunkStart, results);
+
+    BatchResult batch = BatchResult.of(results);
+    HttpStatus status = batch.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+    return new ResponseEntity<>(batch, status);
+  }
+
+  private void flushChunk(List<Item> chunk, int chunkStart, List<ItemResult> results) {
+    if (!chunk.isEmpty()) {
+      results.addAll(itemService.createItems(chunk, chunkStart));
+      chunk.clear();
+    }
+  }
+
+  // The unfiltered listing is written straight from pre-encoded bytes
+  private ResponseEntity<byte[]> catalogSnapshot(boolean gzip) {
+    CatalogSnapshot snapshot = itemService.getCatalogSnapshot();
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzip());
+    }
+    return response.body(snapshot.getJson());
+  }
+
+  /**
+   * Any write changes the catalog version, so it identifies every listing.
+   * The gzip body is a different representation and gets its own strong
+   * tag; where both are served, a client holding either one of the current
+   * version gets a 304 carrying the tag it sent.
+   */
+  private boolean checkNotModified(WebRequest request, boolean gzip, boolean bothEncodings) {
+    long version = itemService.getCatalogVersion();
+    String etag = catalogETag(version, gzip);
+    if (bothEncodings) {
+      String other = catalogETag(version, !gzip);
+      String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+      if (ifNoneMatch != null && !ifNoneMatch.contains(etag) && ifNoneMatch.contains(other)) {
+        etag = other;
+      }
+    }
+    return request.checkNotModified(etag);
+  }
+
+  private static String catalogETag(long version, boolean gzip) {
+    return "\"" + version + (gzip ? "-gzip" : "") + "\"";
+  }
+
+  // Honors q-values: "gzip;q=0" refuses gzip, and "*" covers it unless
+  // gzip is listed itself
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    double gzip = -1;
+    double any = -1;
+    for (String element : acceptEncoding.split(",")) {
+      String[] parameters = element.split(";");
+      String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+      double quality = 1;
+      for (int i = 1; i < parameters.length; i++) {
+        String parameter = parameters[i].trim();
+        if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+          try {
+            quality = Double.parseDouble(parameter.substring(2).trim());
+          } catch (NumberFormatException e) {
+            quality = 0;
+          }
+        }
+      }
+      if (coding.equals("gzip") || coding.equals("x-gzip")) {
+        gzip = quality;
+      } else if (coding.equals("*")) {
+        any = quality;
+      }
+    }
+    return gzip >= 0 ? gzip > 0 : any > 0;
+  }
+
+  // Writes items as they are read from the catalog, so only one item and the
+  // container's response buffer are held in memory at a time.
+  private int writeItems(SequenceWriter sequence) throws IOException {
+    int written = 0;
+    try (sequence) {
+      Iterator<Item> items = itemService.streamItems().iterator();
+      while (items.hasNext()) {
+        sequence.write(items.next());
+        if (++written % STREAM_FLUSH_EVERY == 0) {
+          sequence.flush();
+        }
+      }
+    }
+    return written;
+  }
+
+  @ExceptionHandler(DuplicateItemException.class)
+  public ProblemDetail handleDuplicate(DuplicateItemException e) {
+    return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+  }
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ProblemDetail handleInvalid(IllegalArgumentException e) {
+    return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+  }
+
+  // Bodies that are malformed from the start, before any item was read
+  @ExceptionHandler(JsonProcessingException.class)
+  public ProblemDetail handleMalformedBody(JsonProcessingException e) {
+    return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getOriginalMessage());
+  }
 }
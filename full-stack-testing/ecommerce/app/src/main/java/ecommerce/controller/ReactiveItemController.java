@@ -0,0 +1,116 @@
+package ecommerce.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import ecommerce.model.BatchResult;
+import ecommerce.model.Item;
+import ecommerce.model.ItemPage;
+import ecommerce.service.DuplicateItemException;
+import ecommerce.service.ReactiveItemService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking twin of {@link ItemController}, active when the app runs as a
+ * reactive web application (the "reactive" profile). Same routes and
+ * payloads; listings are written as the socket drains, with demand flowing
+ * back to the catalog iterator.
+ */
+@RestController
+@RequestMapping("/items")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemController {
+
+  private final ReactiveItemService itemService;
+
+  @Autowired
+  public ReactiveItemController(ReactiveItemService itemService) {
+    this.itemService = itemService;
+  }
+
+  @GetMapping
+  public Flux<Item> getAllItems(
+      @RequestParam(required = false) String color,
+      @RequestParam(required = false) String size,
+      ServerWebExchange exchange) {
+    if (exchange.checkNotModified(catalogETag())) {
+      // 304 already set, nothing to serialize
+      return null;
+    }
+    if (color == null && size == null) {
+      return itemService.getAllItems();
+    }
+    return itemService.findItems(color, size);
+  }
+
+  @GetMapping(params = "limit")
+  public Mono<ItemPage> getItemPage(
+      @RequestParam int limit,
+      @RequestParam(required = false) String after,
+      ServerWebExchange exchange) {
+    if (exchange.checkNotModified(catalogETag())) {
+      return null;
+    }
+    return itemService.getItemPage(after, limit);
+  }
+
+  @GetMapping(value = "/stream", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+  public Flux<Item> streamItems() {
+    return itemService.getAllItems();
+  }
+
+  @GetMapping("/{sku}")
+  public Mono<ResponseEntity<Item>> getItem(@PathVariable String sku) {
+    return itemService.getItem(sku)
+        .map(ResponseEntity::ok)
+        .defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+
+  @PostMapping
+  public Mono<ResponseEntity<Item>> createItem(@RequestBody Item newItem) {
+    return itemService.createItem(newItem)
+        .map(createdItem -> new ResponseEntity<>(createdItem, HttpStatus.CREATED));
+  }
+
+  @PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+  public Mono<ResponseEntity<BatchResult>> createItems(@RequestBody Flux<Item> newItems) {
+    return newItems
+        .buffer(ItemController.BATCH_CHUNK_SIZE)
+        .index()
+        .concatMap(chunk -> itemService.createItems(chunk.getT2(),
+            (int) (chunk.getT1() * ItemController.BATCH_CHUNK_SIZE)))
+        .flatMapIterable(results -> results)
+        .collectList()
+        .map(BatchResult::of)
+        .map(batch -> new ResponseEntity<>(batch,
+            batch.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS));
+  }
+
+  private String catalogETag() {
+    return "\"" + itemService.getCatalogVersion() + "\"";
+  }
+
+  @ExceptionHandler(DuplicateItemException.class)
+  public ProblemDetail handleDuplicate(DuplicateItemException e) {
+    return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+  }
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ProblemDetail handleInvalid(IllegalArgumentException e) {
+    return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+  }
+}
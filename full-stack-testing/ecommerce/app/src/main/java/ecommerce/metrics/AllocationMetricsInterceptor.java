@@ -0,0 +1,70 @@
+package ecommerce.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records the heap bytes allocated while handling each request, per route.
+ * Together with {@code http.server.requests} this gives allocation rate per
+ * endpoint alongside request and error rates.
+ *
+ * <p>Only dispatches on the request thread are measured: the asynchronous
+ * part of a streamed response is not counted, and virtual threads, which the
+ * JVM does not track allocation for, are skipped.
+ */
+public class AllocationMetricsInterceptor implements AsyncHandlerInterceptor {
+
+  public static final String METRIC = "http.server.requests.allocated";
+
+  private static final String START = AllocationMetricsInterceptor.class.getName() + ".START";
+
+  private final com.sun.management.ThreadMXBean threads;
+  private final Meter.MeterProvider<DistributionSummary> allocated;
+
+  public AllocationMetricsInterceptor(MeterRegistry registry) {
+    this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    this.allocated = DistributionSummary.builder(METRIC)
+        .description("Heap allocated on the request thread while handling a request")
+        .baseUnit("bytes")
+        .withRegistry(registry);
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    long start = threads.getCurrentThreadAllocatedBytes();
+    if (start >= 0) {
+      request.setAttribute(START, start);
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+      Exception ex) {
+    if (!(request.getAttribute(START) instanceof Long start)) {
+      return;
+    }
+    request.removeAttribute(START);
+    long end = threads.getCurrentThreadAllocatedBytes();
+    Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    allocated.withTags(Tags.of("method", request.getMethod(), "uri", uri == null ? "UNKNOWN" : uri.toString()))
+        .record(end - start);
+  }
+
+  // The handler continues on another thread; the async dispatch that
+  // finishes the request is measured on its own.
+  @Override
+  public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    request.removeAttribute(START);
+  }
+}
@@ -0,0 +1,35 @@
+package ecommerce.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Servlet-side request metrics beyond what Spring Boot records on its own.
+ * Latency histograms for the endpoints ({@code http.server.requests}) and
+ * for {@code ItemService} ({@code items.service}) are configured in
+ * application.properties.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MetricsConfiguration {
+
+  @Bean
+  public AllocationMetricsInterceptor allocationMetricsInterceptor(MeterRegistry registry) {
+    return new AllocationMetricsInterceptor(registry);
+  }
+
+  @Bean
+  public WebMvcConfigurer allocationMetrics(AllocationMetricsInterceptor interceptor) {
+    return new WebMvcConfigurer() {
+      @Override
+      public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor);
+      }
+    };
+  }
+}
@@ -0,0 +1,16 @@
+package ecommerce.model;
+
+import java.util.List;
+
+public record BatchResult(int created, int failed, List<ItemResult> results) {
+
+  public static BatchResult of(List<ItemResult> results) {
+    int created = 0;
+    for (ItemResult result : results) {
+      if (result.succeeded()) {
+        created++;
+      }
+    }
+    return new BatchResult(created, results.size() - created, results);
+  }
+}
@@ -0,0 +1,79 @@
+package ecommerce.model;
+
+/**
+ * Memory-compact form of {@link Item}: the numeric SKU as a primitive and
+ * color/size as {@link ItemDictionary} codes. About 24 bytes per item against
+ * well over 100 for an {@code Item} with its own strings. Not serialized
+ * directly; convert back with {@link #toItem} so the JSON contract stays
+ * that of {@code Item}. The live ItemRepository still holds {@code Item}
+ * instances: this encoding is used by snapshot files and measured by
+ * ItemFootprintBenchmark, not integrated into the in-memory catalog.
+ */
+public final class CompactItem {
+
+  private final long sku;
+  private final short color;
+  private final short size;
+
+  public CompactItem(long sku, int color, int size) {
+    this.sku = sku;
+    this.color = checkCode(color);
+    this.size = checkCode(size);
+  }
+
+  public static CompactItem of(Item item, ItemDictionary colors, ItemDictionary sizes) {
+    return new CompactItem(parseSku(item.getSKU()), colors.encode(item.getColor()), sizes.encode(item.getSize()));
+  }
+
+  public Item toItem(ItemDictionary colors, ItemDictionary sizes) {
+    return new Item(formatSku(sku), colors.decode(color), sizes.decode(size));
+  }
+
+  public long getSku() {
+    return sku;
+  }
+
+  public int getColor() {
+    return color;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Parses a SKU that round-trips through a {@code long}: digits only, no
+   * sign and no leading zeros, so {@link #formatSku} gives back the exact
+   * string.
+   */
+  public static long parseSku(String sku) {
+    if (!isCompactSku(sku)) {
+      throw new IllegalArgumentException("SKU is not a canonical number: " + sku);
+    }
+    return Long.parseLong(sku);
+  }
+
+  public static String formatSku(long sku) {
+    return Long.toString(sku);
+  }
+
+  public static boolean isCompactSku(String sku) {
+    if (sku == null || sku.isEmpty() || sku.length() > 18 || (sku.charAt(0) == '0' && sku.length() > 1)) {
+      return false;
+    }
+    for (int i = 0; i < sku.length(); i++) {
+      char c = sku.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static short checkCode(int code) {
+    if (code < ItemDictionary.NONE || code > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("Dictionary code out of range: " + code);
+    }
+    return (short) code;
+  }
+}
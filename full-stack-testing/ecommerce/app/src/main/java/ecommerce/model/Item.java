@@ -1,9 +1,11 @@
 package ecommerce.model;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class Item {
   @JsonProperty("sku") // Ensures proper case in JSON
+  @JsonAlias("SKU") // The frontend pact still posts the upper-case key
   private String SKU;
   private String color;
   private String size;
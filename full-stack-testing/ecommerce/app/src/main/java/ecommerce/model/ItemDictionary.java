@@ -0,0 +1,89 @@
+package ecommerce.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Dictionary encoding for low-cardinality item attributes such as color and
+ * size: each distinct value gets a dense int code and one canonical String
+ * instance. Lookups are lock-free; only adding a new value takes the lock.
+ * Values often come from clients, so the dictionary holds at most
+ * {@code maxSize} of them; values beyond that get no code and stay as they
+ * are.
+ */
+public class ItemDictionary {
+
+  /** Code reserved for a missing (null) value. */
+  public static final int NONE = -1;
+
+  /** Code returned for a value that did not fit in a full dictionary. */
+  public static final int OVERFLOW = -2;
+
+  /** The most codes {@link CompactItem} can hold. */
+  public static final int MAX_SIZE = Short.MAX_VALUE + 1;
+
+  private final ConcurrentMap<String, Integer> codes = new ConcurrentHashMap<>();
+  private final int maxSize;
+  private volatile String[] values = new String[16];
+  private int size;
+
+  public ItemDictionary() {
+    this(MAX_SIZE);
+  }
+
+  public ItemDictionary(int maxSize) {
+    if (maxSize < 1 || maxSize > MAX_SIZE) {
+      throw new IllegalArgumentException("maxSize must be between 1 and " + MAX_SIZE);
+    }
+    this.maxSize = maxSize;
+  }
+
+  /** The value's code, adding it if new, or {@link #OVERFLOW} once full. */
+  public int encode(String value) {
+    if (value == null) {
+      return NONE;
+    }
+    Integer code = codes.get(value);
+    return code != null ? code : add(value);
+  }
+
+  public String decode(int code) {
+    return code == NONE ? null : values[code];
+  }
+
+  /**
+   * The canonical instance equal to {@code value}, or {@code value} itself
+   * if the dictionary is full and does not hold it.
+   */
+  public String intern(String value) {
+    int code = encode(value);
+    return code == OVERFLOW ? value : decode(code);
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  private synchronized int add(String value) {
+    Integer existing = codes.get(value);
+    if (existing != null) {
+      return existing;
+    }
+    int code = size;
+    if (code == maxSize) {
+      return OVERFLOW;
+    }
+    String[] current = values;
+    if (code == current.length) {
+      current = Arrays.copyOf(current, Math.min(code * 2, maxSize));
+    }
+    current[code] = value;
+    // Publish the array before the code, so a reader that sees the code
+    // also sees the value
+    values = current;
+    size = code + 1;
+    codes.put(value, code);
+    return code;
+  }
+}
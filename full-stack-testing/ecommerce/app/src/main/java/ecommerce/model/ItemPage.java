@@ -0,0 +1,10 @@
+package ecommerce.model;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is the last SKU
+ * of the page, to be passed back as {@code after}; null on the last page.
+ */
+public record ItemPage(List<Item> items, String nextCursor) {
+}
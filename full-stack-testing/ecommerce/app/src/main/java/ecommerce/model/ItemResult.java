@@ -0,0 +1,15 @@
+package ecommerce.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item in a batch: its position in the request, the HTTP
+ * status it would have received on its own, and why it failed if it did.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ItemResult(int index, String sku, int status, String error) {
+
+  public boolean succeeded() {
+    return status == 201;
+  }
+}
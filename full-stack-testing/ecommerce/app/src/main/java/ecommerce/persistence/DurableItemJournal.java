@@ -0,0 +1,413 @@
+package ecommerce.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import ecommerce.model.Item;
+import ecommerce.repository.ItemRepository;
+
+/**
+ * Write-ahead log journal with group commit and periodic snapshots.
+ *
+ * <p>Request threads encode their items and queue them; a single committer
+ * thread drains everything queued, appends it to the memory-mapped log and
+ * forces it once for the whole group, then publishes the group's items and
+ * releases all waiting writers. One
+ * fsync therefore covers as many concurrent writes as arrived during the
+ * previous one. Records of a group that fails are truncated off the log
+ * again, so a failed write never reappears on restart.
+ *
+ * <p>On a schedule the log is rotated to a new generation and the catalog is
+ * written as a compact snapshot covering every older generation, which are
+ * then deleted. On startup the newest snapshot is mapped and loaded, and only
+ * the log generations after it are replayed.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ecommerce.persistence", name = "enabled", havingValue = "true")
+public class DurableItemJournal implements ItemJournal, DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(DurableItemJournal.class);
+  private static final Pattern FILE_NAME = Pattern.compile("items-(\\d{12})\\.(log|snap)");
+  // Upper bound on commits folded into one fsync
+  private static final int MAX_GROUP = 4096;
+
+  private final ItemRepository repository;
+  private final Path directory;
+  private final int regionSize;
+  private final BlockingQueue<Commit> pending = new LinkedBlockingQueue<>();
+  private final Thread committer;
+  private final ScheduledExecutorService snapshots;
+
+  // Owned by the committer thread after construction
+  private WriteAheadLog current;
+  private volatile long generation;
+  private volatile boolean closed;
+  private volatile long bytesSinceSnapshot;
+
+  @Autowired
+  public DurableItemJournal(ItemRepository repository,
+      @Value("${ecommerce.persistence.directory:data}") Path directory,
+      @Value("${ecommerce.persistence.log-region-size:64MB}") DataSize regionSize,
+      @Value("${ecommerce.persistence.snapshot-interval:PT5M}") Duration snapshotInterval) throws IOException {
+    this.repository = repository;
+    this.directory = directory;
+    this.regionSize = Math.toIntExact(regionSize.toBytes());
+    Files.createDirectories(directory);
+
+    long lastGeneration = recover();
+    this.generation = lastGeneration + 1;
+    this.current = openLog(logFile(generation));
+
+    this.committer = new Thread(this::commitLoop, "item-journal-committer");
+    committer.setDaemon(true);
+    committer.start();
+
+    this.snapshots = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "item-journal-snapshot");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long period = snapshotInterval.toMillis();
+    snapshots.scheduleWithFixedDelay(this::snapshotIfChanged, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void append(Collection<Item> items, Consumer<Collection<Item>> onDurable) {
+    if (items.isEmpty()) {
+      return;
+    }
+    if (closed) {
+      throw new IllegalStateException("Item journal is closed");
+    }
+    // Encoding happens on the caller's thread, in parallel across writers
+    List<byte[]> records = new ArrayList<>(items.size());
+    for (Item item : items) {
+      records.add(ItemRecordCodec.encode(item));
+    }
+    await(submit(new Commit(items, records, onDurable)));
+  }
+
+  /**
+   * Rotates the log and writes a snapshot that makes every earlier
+   * generation redundant, then deletes those generations.
+   */
+  public void snapshot() throws IOException {
+    long covered = await(submit(new Commit(List.of(), List.of(), null)));
+    Path file = snapshotFile(covered);
+    long started = System.nanoTime();
+    long count = ItemSnapshotFile.write(file, repository);
+    log.info("Wrote snapshot of {} items for generation {} in {} ms",
+        count, covered, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    deleteCoveredFiles(covered);
+  }
+
+  public long getGeneration() {
+    return generation;
+  }
+
+  @Override
+  public void destroy() throws InterruptedException {
+    snapshots.shutdownNow();
+    // Not interrupted: an interrupt during a remap would close the channel.
+    // The committer drains what is queued, then closes the log and exits.
+    closed = true;
+    committer.join(TimeUnit.SECONDS.toMillis(10));
+    if (committer.isAlive()) {
+      // Still writing; it closes the log itself once it is done
+      log.warn("Item journal committer did not finish within 10 s, leaving the log open");
+    }
+    failPending();
+  }
+
+  private CompletableFuture<Long> submit(Commit commit) {
+    pending.add(commit);
+    // Checked after the enqueue: destroy() sets closed before the committer
+    // and its own final drain look at the queue, so a commit added before
+    // the flag flipped is always picked up by one of them, and one added
+    // after it is failed here. Whoever removes it from the queue completes it.
+    if (closed && pending.remove(commit)) {
+      commit.done.completeExceptionally(new IllegalStateException("Item journal is closed"));
+    }
+    return commit.done;
+  }
+
+  private void failPending() {
+    for (Commit late; (late = pending.poll()) != null;) {
+      late.done.completeExceptionally(new IllegalStateException("Item journal is closed"));
+    }
+  }
+
+  private void commitLoop() {
+    List<Commit> group = new ArrayList<>();
+    try {
+      while (true) {
+        if (closed && pending.isEmpty()) {
+          return;
+        }
+        Commit first = pending.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        group.add(first);
+        pending.drainTo(group, MAX_GROUP - 1);
+        commit(group);
+        group.clear();
+      }
+    } catch (InterruptedException e) {
+      // Not interrupted by destroy(); nothing more to commit
+    } catch (RuntimeException e) {
+      log.error("Item journal log failed, no longer accepting writes", e);
+    } finally {
+      // Whatever ended the loop, even an Error, no writer may be left
+      // waiting on a commit that will never happen
+      closed = true;
+      IllegalStateException closedError = new IllegalStateException("Item journal is closed");
+      for (Commit commit : group) {
+        commit.done.completeExceptionally(closedError);
+      }
+      failPending();
+      // Only the committer writes to the log, so only it may close it
+      try {
+        current.close();
+      } catch (IOException e) {
+        log.warn("Closing the item journal log failed", e);
+      }
+    }
+  }
+
+  private void commit(List<Commit> group) {
+    for (int next = 0; next < group.size();) {
+      next = commitBatch(group, next);
+    }
+  }
+
+  /**
+   * Writes the commits from {@code from} up to the next rotation, forces
+   * them once and publishes them in order, then rotates. Records of commits
+   * that fail are truncated away again, so a write reported as failed never
+   * comes back on restart.
+   *
+   * @return the index of the first commit not handled yet
+   */
+  private int commitBatch(List<Commit> group, int from) {
+    // Commits after a rotation go to the next generation, so the snapshot
+    // that follows the rotation never races their publication
+    int end = from;
+    while (end < group.size() && !group.get(end).rotate) {
+      end++;
+    }
+    WriteAheadLog.Mark[] marks = new WriteAheadLog.Mark[end - from];
+    if (end > from) {
+      long before = current.bytesWritten();
+      try {
+        for (int i = from; i < end; i++) {
+          marks[i - from] = current.mark();
+          for (byte[] record : group.get(i).records) {
+            current.write(record);
+          }
+        }
+        current.force();
+      } catch (Throwable e) {
+        if (marks[0] != null) {
+          discard(marks[0]);
+        }
+        for (int i = from; i < end; i++) {
+          group.get(i).done.completeExceptionally(e);
+        }
+        if (e instanceof Error error) {
+          throw error;
+        }
+        return end;
+      }
+      bytesSinceSnapshot += current.bytesWritten() - before;
+    }
+
+    for (int i = from; i < end; i++) {
+      Commit commit = group.get(i);
+      try {
+        // Published by the committer itself, before the rotation that may
+        // follow completes, so the snapshot after it includes every item
+        // logged in the generations it replaces
+        commit.onDurable.accept(commit.items);
+        commit.done.complete(generation);
+      } catch (RuntimeException e) {
+        // Durable but not stored: drop its records, and those of the
+        // unpublished commits after it, which the next batch writes again
+        discard(marks[i - from]);
+        commit.done.completeExceptionally(e);
+        return i + 1;
+      }
+    }
+
+    if (end < group.size()) {
+      rotate(group.get(end));
+      return end + 1;
+    }
+    return end;
+  }
+
+  private void rotate(Commit commit) {
+    try {
+      long rotated = generation;
+      current.close();
+      current = openLog(logFile(rotated + 1));
+      generation = rotated + 1;
+      bytesSinceSnapshot = 0;
+      commit.done.complete(rotated);
+    } catch (IOException e) {
+      commit.done.completeExceptionally(e);
+    }
+  }
+
+  // A log that cannot be truncated may still hold records reported as
+  // failed; the committer stops rather than write after them
+  private void discard(WriteAheadLog.Mark mark) {
+    try {
+      current.truncate(mark);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not discard failed item journal records", e);
+    }
+  }
+
+  WriteAheadLog openLog(Path file) throws IOException {
+    return new WriteAheadLog(file, regionSize);
+  }
+
+  private void snapshotIfChanged() {
+    if (bytesSinceSnapshot == 0) {
+      return;
+    }
+    try {
+      snapshot();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Periodic snapshot failed, will retry", e);
+    }
+  }
+
+  /**
+   * Loads the newest snapshot and replays the log generations after it.
+   *
+   * @return the newest generation found on disk, 0 when empty
+   */
+  private long recover() throws IOException {
+    long started = System.nanoTime();
+    long snapshotGeneration = 0;
+    long lastGeneration = 0;
+    List<Long> logs = new ArrayList<>();
+
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+          continue;
+        }
+        long fileGeneration = Long.parseLong(matcher.group(1));
+        lastGeneration = Math.max(lastGeneration, fileGeneration);
+        if (matcher.group(2).equals("snap")) {
+          snapshotGeneration = Math.max(snapshotGeneration, fileGeneration);
+        } else {
+          logs.add(fileGeneration);
+        }
+      }
+    }
+
+    long loaded = 0;
+    if (snapshotGeneration > 0) {
+      loaded = ItemSnapshotFile.load(snapshotFile(snapshotGeneration), repository);
+    }
+    logs.sort(null);
+    long replayed = 0;
+    for (long logGeneration : logs) {
+      if (logGeneration > snapshotGeneration) {
+        replayed += WriteAheadLog.replay(logFile(logGeneration),
+            record -> repository.save(ItemRecordCodec.decode(record)));
+      }
+    }
+    if (loaded > 0 || replayed > 0) {
+      log.info("Recovered {} items from snapshot and {} from the log in {} ms",
+          loaded, replayed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+    return lastGeneration;
+  }
+
+  private void deleteCoveredFiles(long covered) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+          continue;
+        }
+        long fileGeneration = Long.parseLong(matcher.group(1));
+        boolean snapshot = matcher.group(2).equals("snap");
+        if (snapshot ? fileGeneration < covered : fileGeneration <= covered) {
+          Files.deleteIfExists(file);
+        }
+      }
+    }
+  }
+
+  private Path logFile(long fileGeneration) {
+    return directory.resolve(String.format("items-%012d.log", fileGeneration));
+  }
+
+  private Path snapshotFile(long fileGeneration) {
+    return directory.resolve(String.format("items-%012d.snap", fileGeneration));
+  }
+
+  private static long await(CompletableFuture<Long> done) {
+    try {
+      return done.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException io) {
+        throw new UncheckedIOException("Item journal write failed", io);
+      }
+      if (cause instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw e;
+    }
+  }
+
+  private static final class Commit {
+    final Collection<Item> items;
+    final List<byte[]> records;
+    // Null for a rotation
+    final Consumer<Collection<Item>> onDurable;
+    final boolean rotate;
+    final CompletableFuture<Long> done = new CompletableFuture<>();
+
+    Commit(Collection<Item> items, List<byte[]> records, Consumer<Collection<Item>> onDurable) {
+      this.items = items;
+      this.records = records;
+      this.onDurable = onDurable;
+      this.rotate = onDurable == null;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package ecommerce.persistence;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import ecommerce.model.Item;
+
+/**
+ * Durability hook under {@link ecommerce.service.ItemService}: items whose
+ * SKUs were reserved in the in-memory catalog are handed to the journal, and
+ * only become visible once it has made them durable.
+ */
+@FunctionalInterface
+public interface ItemJournal {
+
+  /** Journal used when persistence is disabled; items live in memory only. */
+  ItemJournal NONE = (items, onDurable) -> onDurable.accept(items);
+
+  /**
+   * Makes the items durable, then passes them to {@code onDurable} before
+   * returning. Journals that take snapshots run the callback before any
+   * later snapshot is taken, so a snapshot never misses an item whose log
+   * entry it replaces. Throws if the items could not be written, in which
+   * case none of them count as stored and the callback is not run.
+   */
+  void append(Collection<Item> items, Consumer<Collection<Item>> onDurable);
+
+  default void append(Collection<Item> items) {
+    append(items, durable -> {
+    });
+  }
+}
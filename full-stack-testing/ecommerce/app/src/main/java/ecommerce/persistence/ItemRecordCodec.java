@@ -0,0 +1,67 @@
+package ecommerce.persistence;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import ecommerce.model.Item;
+
+/**
+ * Binary form of one {@link Item} in the write-ahead log: three strings, each
+ * a signed 16-bit byte length (-1 for null) followed by UTF-8 bytes.
+ */
+final class ItemRecordCodec {
+
+  private static final int MAX_FIELD_BYTES = Short.MAX_VALUE;
+
+  private ItemRecordCodec() {
+  }
+
+  static byte[] encode(Item item) {
+    byte[] sku = bytes(item.getSKU());
+    byte[] color = bytes(item.getColor());
+    byte[] size = bytes(item.getSize());
+    ByteBuffer buffer = ByteBuffer.allocate(6 + length(sku) + length(color) + length(size));
+    put(buffer, sku);
+    put(buffer, color);
+    put(buffer, size);
+    return buffer.array();
+  }
+
+  static Item decode(ByteBuffer buffer) {
+    return new Item(get(buffer), get(buffer), get(buffer));
+  }
+
+  private static byte[] bytes(String value) {
+    if (value == null) {
+      return null;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > MAX_FIELD_BYTES) {
+      throw new IllegalArgumentException("Item field longer than " + MAX_FIELD_BYTES + " bytes");
+    }
+    return bytes;
+  }
+
+  private static int length(byte[] bytes) {
+    return bytes == null ? 0 : bytes.length;
+  }
+
+  private static void put(ByteBuffer buffer, byte[] bytes) {
+    if (bytes == null) {
+      buffer.putShort((short) -1);
+    } else {
+      buffer.putShort((short) bytes.length);
+      buffer.put(bytes);
+    }
+  }
+
+  private static String get(ByteBuffer buffer) {
+    int length = buffer.getShort();
+    if (length < 0) {
+      return null;
+    }
+    String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+    buffer.position(buffer.position() + length);
+    return value;
+  }
+}
@@ -0,0 +1,180 @@
+package ecommerce.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+import com.google.common.io.CountingOutputStream;
+
+import ecommerce.model.CompactItem;
+import ecommerce.model.Item;
+import ecommerce.model.ItemDictionary;
+import ecommerce.repository.ItemRepository;
+
+/**
+ * Compact point-in-time image of the catalog. Items are written in the
+ * {@link CompactItem} encoding (numeric SKU as a long, color and size as
+ * dictionary codes); SKUs that do not fit a long, and values a full
+ * dictionary has no code for, are kept as strings.
+ *
+ * <p>Layout: {@code [magic][records...][END][colors][sizes][footer]}, where
+ * the footer holds the record count and the offset of the dictionaries, so a
+ * loader can map the file and decode dictionaries before records.
+ */
+final class ItemSnapshotFile {
+
+  private static final int MAGIC = 0x4954534E; // "ITSN"
+  private static final byte NUMERIC_SKU = 0;
+  private static final byte STRING_SKU = 1;
+  private static final byte END = -1;
+  private static final int FOOTER_BYTES = 8 + 8 + 4;
+
+  private ItemSnapshotFile() {
+  }
+
+  /**
+   * Writes the repository's current items to {@code file}, atomically: the
+   * file either appears complete and synced or not at all.
+   *
+   * @return the number of items written
+   */
+  static long write(Path file, ItemRepository repository) throws IOException {
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    ItemDictionary colors = repository.colors();
+    ItemDictionary sizes = repository.sizes();
+    long count = 0;
+
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      CountingOutputStream counting = new CountingOutputStream(
+          new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+      DataOutputStream out = new DataOutputStream(counting);
+      out.writeInt(MAGIC);
+
+      Iterator<Item> items = repository.stream().iterator();
+      while (items.hasNext()) {
+        Item item = items.next();
+        if (CompactItem.isCompactSku(item.getSKU())) {
+          out.writeByte(NUMERIC_SKU);
+          out.writeLong(CompactItem.parseSku(item.getSKU()));
+        } else {
+          out.writeByte(STRING_SKU);
+          writeString(out, item.getSKU());
+        }
+        // Writers interned these values before listing the item, so the
+        // dictionaries written below already hold every code used here;
+        // values they were too full to take are written inline
+        writeValue(out, colors, item.getColor());
+        writeValue(out, sizes, item.getSize());
+        count++;
+      }
+      out.writeByte(END);
+
+      out.flush();
+      long dictionaryOffset = counting.getCount();
+      writeDictionary(out, colors);
+      writeDictionary(out, sizes);
+      out.writeLong(count);
+      out.writeLong(dictionaryOffset);
+      out.writeInt(MAGIC);
+      out.flush();
+      channel.force(true);
+    }
+    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    return count;
+  }
+
+  /**
+   * Maps the snapshot and saves every item into the repository.
+   *
+   * @return the number of items loaded
+   */
+  static long load(Path file, ItemRepository repository) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot larger than 2 GB: " + file);
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (size < 4 + FOOTER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt((int) size - 4) != MAGIC) {
+        throw new IOException("Incomplete or corrupt snapshot: " + file);
+      }
+      int footer = (int) size - FOOTER_BYTES;
+      long count = buffer.getLong(footer);
+      long dictionaryOffset = buffer.getLong(footer + 8);
+
+      buffer.position((int) dictionaryOffset);
+      String[] colors = readDictionary(buffer);
+      String[] sizes = readDictionary(buffer);
+
+      buffer.position(4);
+      for (long i = 0; i < count; i++) {
+        byte kind = buffer.get();
+        String sku = kind == NUMERIC_SKU ? CompactItem.formatSku(buffer.getLong()) : readString(buffer);
+        String color = readValue(buffer, colors);
+        String itemSize = readValue(buffer, sizes);
+        repository.save(new Item(sku, color, itemSize));
+      }
+      if (buffer.get() != END) {
+        throw new IOException("Snapshot record count does not match: " + file);
+      }
+      return count;
+    }
+  }
+
+  // A dictionary code, or OVERFLOW followed by the value itself when the
+  // dictionary was full and never coded it
+  private static void writeValue(DataOutputStream out, ItemDictionary dictionary, String value) throws IOException {
+    int code = dictionary.encode(value);
+    out.writeInt(code);
+    if (code == ItemDictionary.OVERFLOW) {
+      writeString(out, value);
+    }
+  }
+
+  private static String readValue(ByteBuffer buffer, String[] dictionary) {
+    int code = buffer.getInt();
+    if (code == ItemDictionary.OVERFLOW) {
+      return readString(buffer);
+    }
+    return code == ItemDictionary.NONE ? null : dictionary[code];
+  }
+
+  private static void writeDictionary(DataOutputStream out, ItemDictionary dictionary) throws IOException {
+    int size = dictionary.size();
+    out.writeInt(size);
+    for (int code = 0; code < size; code++) {
+      writeString(out, dictionary.decode(code));
+    }
+  }
+
+  private static String[] readDictionary(ByteBuffer buffer) {
+    String[] values = new String[buffer.getInt()];
+    for (int code = 0; code < values.length; code++) {
+      values[code] = readString(buffer);
+    }
+    return values;
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
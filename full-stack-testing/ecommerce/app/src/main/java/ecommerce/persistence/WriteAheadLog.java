@@ -0,0 +1,165 @@
+package ecommerce.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * One generation of the append-only item log, written through a memory
+ * mapping that is extended one region at a time.
+ *
+ * <p>Layout: an 8-byte header (magic, region size), then records of
+ * {@code [length][crc32c][payload]}. A record never straddles two regions; a
+ * length of {@link #SKIP} (or fewer than 4 bytes left) moves on to the next
+ * region, and a length of 0 marks the end of the log. Every write re-marks
+ * the end behind its record, so records dropped by {@link #truncate} never
+ * resurface behind newer ones. Not thread-safe: the journal's committer
+ * thread is the only writer.
+ */
+class WriteAheadLog implements Closeable {
+
+  private static final int MAGIC = 0x49544C47; // "ITLG"
+  private static final int HEADER_BYTES = 8;
+  private static final int RECORD_HEADER_BYTES = 8;
+  private static final int SKIP = -1;
+
+  private final FileChannel channel;
+  private final int regionSize;
+  private final CRC32C crc = new CRC32C();
+  private MappedByteBuffer region;
+  private long regionStart;
+  private long bytesWritten;
+
+  WriteAheadLog(Path file, int regionSize) throws IOException {
+    this.channel = FileChannel.open(file,
+        StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    this.regionSize = regionSize;
+    this.region = channel.map(FileChannel.MapMode.READ_WRITE, 0, regionSize);
+    region.putInt(MAGIC).putInt(regionSize);
+  }
+
+  /** Buffers one record in the mapping; durable only after {@link #force()}. */
+  void write(byte[] payload) throws IOException {
+    int needed = RECORD_HEADER_BYTES + payload.length;
+    if (needed > regionSize - HEADER_BYTES) {
+      throw new IllegalArgumentException("Record of " + payload.length + " bytes exceeds the log region size");
+    }
+    if (region.remaining() < needed) {
+      nextRegion();
+    }
+    crc.reset();
+    crc.update(payload);
+    region.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+    if (region.remaining() >= 4) {
+      region.putInt(region.position(), 0);
+    }
+    bytesWritten += needed;
+  }
+
+  void force() {
+    region.force();
+  }
+
+  /** Where the next record goes, to {@link #truncate} back to. */
+  Mark mark() {
+    // Fewer than 4 bytes left: the next record starts the next region
+    long offset = region.remaining() < 4 ? regionStart + regionSize : regionStart + region.position();
+    return new Mark(offset, bytesWritten);
+  }
+
+  /**
+   * Durably drops every record written since {@code mark}: the length word
+   * there becomes the end marker, so replay stops before them, and later
+   * writes continue from the mark.
+   */
+  void truncate(Mark mark) throws IOException {
+    long start = mark.offset() - mark.offset() % regionSize;
+    if (start != regionStart) {
+      region = channel.map(FileChannel.MapMode.READ_WRITE, start, regionSize);
+      regionStart = start;
+    }
+    region.position((int) (mark.offset() - start));
+    region.putInt(region.position(), 0);
+    region.force();
+    bytesWritten = mark.bytesWritten();
+  }
+
+  long bytesWritten() {
+    return bytesWritten;
+  }
+
+  @Override
+  public void close() throws IOException {
+    force();
+    channel.close();
+  }
+
+  record Mark(long offset, long bytesWritten) {
+  }
+
+  private void nextRegion() throws IOException {
+    if (region.remaining() >= 4) {
+      region.putInt(SKIP);
+    }
+    region.force();
+    regionStart += regionSize;
+    region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, regionSize);
+  }
+
+  /**
+   * Feeds every intact record of a log file to {@code records}, in order.
+   * Stops at the end marker or at the first torn or corrupt record, which
+   * can only be the tail of a crashed writer.
+   *
+   * @return the number of records replayed
+   */
+  static long replay(Path file, Consumer<ByteBuffer> records) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      if (fileSize < HEADER_BYTES) {
+        return 0;
+      }
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+      if (header.getInt() != MAGIC) {
+        throw new IOException("Not an item log: " + file);
+      }
+      int regionSize = header.getInt();
+
+      CRC32C crc = new CRC32C();
+      long count = 0;
+      for (long start = 0; start < fileSize; start += regionSize) {
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start,
+            Math.min(regionSize, fileSize - start));
+        if (start == 0) {
+          region.position(HEADER_BYTES);
+        }
+        while (region.remaining() >= 4) {
+          int length = region.getInt();
+          if (length == SKIP) {
+            break;
+          }
+          if (length <= 0 || region.remaining() < 4 + length) {
+            return count;
+          }
+          int expectedCrc = region.getInt();
+          byte[] payload = new byte[length];
+          region.get(payload);
+          crc.reset();
+          crc.update(payload);
+          if ((int) crc.getValue() != expectedCrc) {
+            return count;
+          }
+          records.accept(ByteBuffer.wrap(payload));
+          count++;
+        }
+      }
+      return count;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package ecommerce.repository;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import ecommerce.model.CompactItem;
+import ecommerce.model.Item;
+import ecommerce.model.ItemDictionary;
+
+/**
+ * Column-oriented item storage: one primitive array per attribute, so an
+ * item costs 12 bytes and no object headers. Append-only; rows are addressed
+ * by insertion position. Appends are serialized, reads of rows below
+ * {@link #size()} need no lock. A prototype measured by
+ * ItemFootprintBenchmark; {@link ItemRepository} does not use it.
+ */
+public class ItemColumnStore {
+
+  private final ItemDictionary colors;
+  private final ItemDictionary sizes;
+
+  private volatile long[] skus;
+  private volatile short[] colorCodes;
+  private volatile short[] sizeCodes;
+  private volatile int size;
+
+  public ItemColumnStore(ItemDictionary colors, ItemDictionary sizes) {
+    this(colors, sizes, 1024);
+  }
+
+  public ItemColumnStore(ItemDictionary colors, ItemDictionary sizes, int initialCapacity) {
+    this.colors = colors;
+    this.sizes = sizes;
+    int capacity = Math.max(16, initialCapacity);
+    this.skus = new long[capacity];
+    this.colorCodes = new short[capacity];
+    this.sizeCodes = new short[capacity];
+  }
+
+  /** Appends the item and returns its row. */
+  public synchronized int add(Item item) {
+    CompactItem compact = CompactItem.of(item, colors, sizes);
+    int row = size;
+    if (row == skus.length) {
+      int capacity = row * 2;
+      skus = Arrays.copyOf(skus, capacity);
+      colorCodes = Arrays.copyOf(colorCodes, capacity);
+      sizeCodes = Arrays.copyOf(sizeCodes, capacity);
+    }
+    skus[row] = compact.getSku();
+    colorCodes[row] = (short) compact.getColor();
+    sizeCodes[row] = (short) compact.getSize();
+    // Publishing the size makes the row visible to readers
+    size = row + 1;
+    return row;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long sku(int row) {
+    checkRow(row);
+    return skus[row];
+  }
+
+  public CompactItem compact(int row) {
+    checkRow(row);
+    return new CompactItem(skus[row], colorCodes[row], sizeCodes[row]);
+  }
+
+  public Item get(int row) {
+    return compact(row).toItem(colors, sizes);
+  }
+
+  /** Visits the rows present when the call starts, in insertion order. */
+  public void forEach(Consumer<Item> action) {
+    int rows = size;
+    long[] skuColumn = skus;
+    short[] colorColumn = colorCodes;
+    short[] sizeColumn = sizeCodes;
+    for (int row = 0; row < rows; row++) {
+      action.accept(new Item(CompactItem.formatSku(skuColumn[row]),
+          colors.decode(colorColumn[row]), sizes.decode(sizeColumn[row])));
+    }
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= size) {
+      throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+    }
+  }
+}
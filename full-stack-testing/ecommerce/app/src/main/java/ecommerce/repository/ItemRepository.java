@@ -0,0 +1,228 @@
+package ecommerce.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Repository;
+
+import ecommerce.model.Item;
+import ecommerce.model.ItemDictionary;
+
+@Repository
+public class ItemRepository {
+
+  // Every SKU taken by a stored item or by a write still being made durable.
+  // The single point where concurrent writers race (putIfAbsent decides the
+  // winner).
+  private final ConcurrentMap<String, Item> claims = new ConcurrentHashMap<>();
+
+  // Primary index: O(1) lookups by SKU, published items only.
+  private final ConcurrentMap<String, Item> bySku = new ConcurrentHashMap<>();
+
+  // Same items ordered by SKU, used for listing.
+  private final ConcurrentNavigableMap<String, Item> catalog = new ConcurrentSkipListMap<>();
+
+  // Secondary indexes: attribute value -> SKUs carrying it.
+  private final ConcurrentMap<String, Set<String>> byColor = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Set<String>> bySize = new ConcurrentHashMap<>();
+
+  // Color and size repeat a handful of values across the catalog; every
+  // stored item points at one shared instance per value. They come from
+  // clients, so past MAX_ATTRIBUTE_VALUES distinct values new ones are
+  // stored as given instead of growing the dictionaries without bound.
+  private static final int MAX_ATTRIBUTE_VALUES = 1024;
+  private final ItemDictionary colors = new ItemDictionary(MAX_ATTRIBUTE_VALUES);
+  private final ItemDictionary sizes = new ItemDictionary(MAX_ATTRIBUTE_VALUES);
+
+  // Bumped after every successful write, once all indexes are updated
+  private final AtomicLong version = new AtomicLong();
+
+  /**
+   * Stores the item unless its SKU is already taken: {@link #reserve}
+   * followed by {@link #publish}, for items that need no durable write.
+   *
+   * @return true if the item was added, false on a duplicate SKU
+   */
+  public boolean save(Item item) {
+    if (!reserve(item)) {
+      return false;
+    }
+    publish(item);
+    return true;
+  }
+
+  /**
+   * Claims the item's SKU without making the item visible, so a write can be
+   * made durable first. Lookups, listings and snapshots only see the item
+   * once it is published.
+   *
+   * @return false if the SKU is already taken, by a stored item or by
+   *     another write in progress
+   */
+  public boolean reserve(Item item) {
+    item.setColor(colors.intern(item.getColor()));
+    item.setSize(sizes.intern(item.getSize()));
+    return claims.putIfAbsent(item.getSKU(), item) == null;
+  }
+
+  /**
+   * Makes a reserved item visible. Only the writer that won the claim
+   * publishes, so the indexes never hold a SKU twice.
+   */
+  public void publish(Item item) {
+    bySku.put(item.getSKU(), item);
+    catalog.put(item.getSKU(), item);
+    index(byColor, item.getColor(), item.getSKU());
+    index(bySize, item.getSize(), item.getSKU());
+    version.incrementAndGet();
+  }
+
+  public void publishAll(Collection<Item> items) {
+    for (Item item : items) {
+      publish(item);
+    }
+  }
+
+  /**
+   * Gives up the claim of a reserved item that was never published, e.g.
+   * because its write could not be made durable.
+   */
+  public void release(Item item) {
+    claims.remove(item.getSKU(), item);
+  }
+
+  /**
+   * Removes exactly this item (not another one stored under its SKU).
+   */
+  public boolean remove(Item item) {
+    if (!claims.remove(item.getSKU(), item)) {
+      return false;
+    }
+    if (bySku.remove(item.getSKU(), item)) {
+      catalog.remove(item.getSKU(), item);
+      unindex(byColor, item.getColor(), item.getSKU());
+      unindex(bySize, item.getSize(), item.getSKU());
+      version.incrementAndGet();
+    }
+    return true;
+  }
+
+  public Optional<Item> findBySku(String sku) {
+    return Optional.ofNullable(bySku.get(sku));
+  }
+
+  public List<Item> findAll() {
+    return new ArrayList<>(catalog.values());
+  }
+
+  /**
+   * Up to {@code limit} items whose SKU sorts strictly after {@code after}
+   * (from the start when null). Walks the skip list from the cursor, so the
+   * cost depends on the page size, not on the catalog size.
+   */
+  public List<Item> findPage(String after, int limit) {
+    ConcurrentNavigableMap<String, Item> tail = after == null ? catalog : catalog.tailMap(after, false);
+    List<Item> page = new ArrayList<>(Math.min(limit, 1024));
+    for (Item item : tail.values()) {
+      if (page.size() == limit) {
+        break;
+      }
+      page.add(item);
+    }
+    return page;
+  }
+
+  /**
+   * Lazily walks the catalog in SKU order without copying it. The stream is
+   * weakly consistent: items created while it is consumed may or may not
+   * appear.
+   */
+  public Stream<Item> stream() {
+    return catalog.values().stream();
+  }
+
+  /**
+   * Items matching every non-null attribute, in SKU order. Scans only the
+   * smaller of the matching index buckets.
+   */
+  public List<Item> findByAttributes(String color, String size) {
+    if (color == null && size == null) {
+      return findAll();
+    }
+    Set<String> colorSkus = color == null ? null : bucket(byColor, color);
+    Set<String> sizeSkus = size == null ? null : bucket(bySize, size);
+
+    Set<String> candidates;
+    Set<String> other;
+    if (colorSkus == null) {
+      candidates = sizeSkus;
+      other = null;
+    } else if (sizeSkus == null) {
+      candidates = colorSkus;
+      other = null;
+    } else if (colorSkus.size() <= sizeSkus.size()) {
+      candidates = colorSkus;
+      other = sizeSkus;
+    } else {
+      candidates = sizeSkus;
+      other = colorSkus;
+    }
+
+    List<Item> result = new ArrayList<>(candidates.size());
+    for (String sku : candidates) {
+      if (other == null || other.contains(sku)) {
+        Item item = bySku.get(sku);
+        if (item != null) {
+          result.add(item);
+        }
+      }
+    }
+    result.sort((a, b) -> a.getSKU().compareTo(b.getSKU()));
+    return result;
+  }
+
+  public ItemDictionary colors() {
+    return colors;
+  }
+
+  public ItemDictionary sizes() {
+    return sizes;
+  }
+
+  public long version() {
+    return version.get();
+  }
+
+  public int size() {
+    return bySku.size();
+  }
+
+  private static void index(ConcurrentMap<String, Set<String>> index, String key, String sku) {
+    if (key != null) {
+      index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(sku);
+    }
+  }
+
+  private static void unindex(ConcurrentMap<String, Set<String>> index, String key, String sku) {
+    if (key != null) {
+      Set<String> skus = index.get(key);
+      if (skus != null) {
+        skus.remove(sku);
+      }
+    }
+  }
+
+  private static Set<String> bucket(ConcurrentMap<String, Set<String>> index, String key) {
+    return index.getOrDefault(key, Collections.emptySet());
+  }
+}
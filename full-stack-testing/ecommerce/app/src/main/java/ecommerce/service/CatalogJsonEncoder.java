@@ -0,0 +1,182 @@
+package ecommerce.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import ecommerce.model.Item;
+import ecommerce.repository.ItemRepository;
+
+/**
+ * Keeps {@link CatalogSnapshot}s current. A rebuild walks the catalog and the
+ * previous snapshot side by side, both in SKU order: items that are the same
+ * instance as before are copied from the previous JSON, in one copy per run
+ * of unchanged items, and only new or replaced items are encoded. Each item's
+ * bytes therefore live in the current snapshot only.
+ */
+class CatalogJsonEncoder {
+
+  private static final Comparator<Item> BY_SKU = Comparator.comparing(Item::getSKU);
+
+  private final ItemRepository repository;
+  private final ObjectWriter itemWriter = new ObjectMapper().writerFor(Item.class);
+
+  // Items encoded after their write was committed, waiting for the next
+  // rebuild. Keyed by instance (Item has identity equality), so an item
+  // replaced under the same SKU is never served with the old bytes.
+  private final Map<Item, byte[]> encoded = new ConcurrentHashMap<>();
+
+  private volatile Built current;
+
+  // The snapshot plus where each item sits in its JSON: item i spans
+  // starts[i] (inclusive) to ends[i] (exclusive)
+  private record Built(CatalogSnapshot snapshot, Item[] items, int[] starts, int[] ends) {
+
+    // Items are in SKU order, as the catalog lists them
+    boolean contains(Item item) {
+      int index = Arrays.binarySearch(items, item, BY_SKU);
+      return index >= 0 && items[index] == item;
+    }
+  }
+
+  CatalogJsonEncoder(ItemRepository repository) {
+    this.repository = repository;
+  }
+
+  /**
+   * Encodes a committed item ahead of the next rebuild, off the read path.
+   * Called only once the item is durable and visible.
+   */
+  void add(Item item) {
+    encoded.computeIfAbsent(item, this::encode);
+  }
+
+  CatalogSnapshot snapshot() {
+    long version = repository.version();
+    Built built = current;
+    if (built != null && built.snapshot().getVersion() == version) {
+      return built.snapshot();
+    }
+    synchronized (this) {
+      built = current;
+      if (built == null || built.snapshot().getVersion() != version) {
+        built = build(version, built);
+        current = built;
+      }
+      return built.snapshot();
+    }
+  }
+
+  // The version is read before walking the catalog, and writes bump it only
+  // after the item is listed, so the snapshot holds at least that version.
+  private Built build(long version, Built previous) {
+    int capacity = repository.size() + 16;
+    Item[] items = new Item[capacity];
+    int[] starts = new int[capacity];
+    int[] ends = new int[capacity];
+    byte[] json = new byte[previous == null ? 1024 : previous.snapshot().getJson().length + 1024];
+    int length = 0;
+    json[length++] = '[';
+
+    // Pending run of unchanged items to copy from the previous JSON
+    int runStart = -1;
+    int runEnd = -1;
+    int p = 0;
+    int count = 0;
+    for (Item item : (Iterable<Item>) repository.stream()::iterator) {
+      if (count == items.length) {
+        items = Arrays.copyOf(items, count * 2);
+        starts = Arrays.copyOf(starts, count * 2);
+        ends = Arrays.copyOf(ends, count * 2);
+      }
+      // Skip previous items that sort before this one, they were removed
+      if (previous != null) {
+        while (p < previous.items().length && previous.items()[p].getSKU().compareTo(item.getSKU()) < 0) {
+          p++;
+        }
+      }
+      int separator = count > 0 ? 1 : 0;
+      if (previous != null && p < previous.items().length && previous.items()[p] == item) {
+        int from = previous.starts()[p];
+        int to = previous.ends()[p];
+        if (runStart >= 0 && runEnd + 1 == from) {
+          // Continues the run: the comma between them is already in it
+          runEnd = to;
+        } else {
+          json = flush(json, length, previous, runStart, runEnd);
+          length += runStart >= 0 ? runEnd - runStart : 0;
+          json = ensure(json, length + separator);
+          if (separator > 0) {
+            json[length++] = ',';
+          }
+          runStart = from;
+          runEnd = to;
+        }
+        // Position in the new JSON once the pending run is written
+        int offset = length + (from - runStart);
+        starts[count] = offset;
+        ends[count] = offset + (to - from);
+        p++;
+      } else {
+        json = flush(json, length, previous, runStart, runEnd);
+        length += runStart >= 0 ? runEnd - runStart : 0;
+        runStart = -1;
+        byte[] part = encoded.remove(item);
+        if (part == null) {
+          part = encode(item);
+        }
+        json = ensure(json, length + separator + part.length);
+        if (separator > 0) {
+          json[length++] = ',';
+        }
+        starts[count] = length;
+        System.arraycopy(part, 0, json, length, part.length);
+        length += part.length;
+        ends[count] = length;
+      }
+      items[count++] = item;
+    }
+    json = flush(json, length, previous, runStart, runEnd);
+    length += runStart >= 0 ? runEnd - runStart : 0;
+    json = ensure(json, length + 1);
+    json[length++] = ']';
+
+    Built built = new Built(new CatalogSnapshot(version, Arrays.copyOf(json, length)),
+        Arrays.copyOf(items, count), Arrays.copyOf(starts, count),
+        Arrays.copyOf(ends, count));
+
+    // Keep only items still waiting for a snapshot. One published while
+    // this rebuild ran may have been encoded here and by add() as well; its
+    // bytes now live in the snapshot, and later rebuilds copy them from it.
+    encoded.keySet().removeIf(item -> built.contains(item)
+        || repository.findBySku(item.getSKU()).orElse(null) != item);
+    return built;
+  }
+
+  // Appends the pending run of unchanged items, if any, at length
+  private static byte[] flush(byte[] json, int length, Built previous, int runStart, int runEnd) {
+    if (runStart < 0) {
+      return json;
+    }
+    json = ensure(json, length + (runEnd - runStart));
+    System.arraycopy(previous.snapshot().getJson(), runStart, json, length, runEnd - runStart);
+    return json;
+  }
+
+  private static byte[] ensure(byte[] json, int needed) {
+    return needed <= json.length ? json : Arrays.copyOf(json, Math.max(needed, json.length * 2));
+  }
+
+  private byte[] encode(Item item) {
+    try {
+      return itemWriter.writeValueAsBytes(item);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot encode item " + item.getSKU(), e);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package ecommerce.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The whole catalog as a ready-to-write JSON array, as of one catalog
+ * version. Immutable once built; the gzip form is encoded on first use.
+ */
+public final class CatalogSnapshot {
+
+  private final long version;
+  private final byte[] json;
+  private volatile byte[] gzip;
+
+  public CatalogSnapshot(long version, byte[] json) {
+    this.version = version;
+    this.json = json;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  /** The encoded array. Shared by every reader, must not be modified. */
+  public byte[] getJson() {
+    return json;
+  }
+
+  public byte[] getGzip() {
+    byte[] encoded = gzip;
+    if (encoded == null) {
+      // Racing readers may both compress; the results are identical
+      encoded = compress(json);
+      gzip = encoded;
+    }
+    return encoded;
+  }
+
+  private static byte[] compress(byte[] data) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+    try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+      gzipOut.write(data);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,19 @@
+package ecommerce.service;
+
+public class DuplicateItemException extends RuntimeException {
+
+  private final String sku;
+
+  public DuplicateItemException(String sku) {
+    super(messageFor(sku));
+    this.sku = sku;
+  }
+
+  public String getSku() {
+    return sku;
+  }
+
+  public static String messageFor(String sku) {
+    return "Item with SKU " + sku + " already exists";
+  }
+}
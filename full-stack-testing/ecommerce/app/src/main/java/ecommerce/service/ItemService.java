@@ -1,27 +1,220 @@
 package ecommerce.service;
 
-import java.util.Arrays;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
 import ecommerce.model.Item;
+import ecommerce.model.ItemPage;
+import ecommerce.model.ItemResult;
+import ecommerce.persistence.ItemJournal;
+import ecommerce.repository.ItemRepository;
 
 @Service
-public class ItemService {
+public class ItemService implements MeterBinder {
+
+  public static final int MAX_PAGE_SIZE = 1000;
+
+  // Latency of the public operations, tagged with the method name
+  public static final String SERVICE_TIMER = "items.service";
+
+  private final ItemRepository repository;
+
+  // Makes accepted writes durable before they are acknowledged
+  private final ItemJournal journal;
+
+  // Read-through cache of listing results. Keys carry the catalog version they
+  // were read at, so a listing loaded concurrently with a write can never be
+  // served once that write is visible.
+  private final LoadingCache<ListingKey, List<Item>> listings;
+
+  // Pre-encoded JSON of the full catalog for the unfiltered listing
+  private final CatalogJsonEncoder catalogJson;
+
+  public ItemService(ItemRepository repository) {
+    this(repository, ItemJournal.NONE, 1000, Duration.ofMinutes(5));
+  }
 
-  // Using a list to simulate in-memory storage
-  private final List<Item> items = Arrays.asList(
-      new Item("984058981", "Green", "M"),
-      new Item("984058982", "Blue", "L"),
-      new Item("984058983", "Red", "S"));
+  @Autowired
+  public ItemService(ItemRepository repository,
+      ObjectProvider<ItemJournal> journal,
+      @Value("${ecommerce.cache.maximum-size:1000}") long cacheMaximumSize,
+      @Value("${ecommerce.cache.expire-after-write:PT5M}") Duration cacheExpireAfterWrite) {
+    this(repository, journal.getIfAvailable(() -> ItemJournal.NONE), cacheMaximumSize, cacheExpireAfterWrite);
+  }
 
+  public ItemService(ItemRepository repository, ItemJournal journal,
+      long cacheMaximumSize, Duration cacheExpireAfterWrite) {
+    this.repository = repository;
+    this.journal = journal;
+    this.listings = CacheBuilder.newBuilder()
+        .maximumSize(cacheMaximumSize)
+        .expireAfterWrite(cacheExpireAfterWrite)
+        .recordStats()
+        .build(CacheLoader.from(key -> List.copyOf(repository.findByAttributes(key.color(), key.size()))));
+    this.catalogJson = new CatalogJsonEncoder(repository);
+    // Seed data to simulate an existing catalog
+    repository.save(new Item("984058981", "Green", "M"));
+    repository.save(new Item("984058982", "Blue", "L"));
+    repository.save(new Item("984058983", "Red", "S"));
+  }
+
+  @Timed(SERVICE_TIMER)
   public List<Item> getAllItems() {
-    return items;
+    return listings.getUnchecked(new ListingKey(repository.version(), null, null));
+  }
+
+  /**
+   * The full catalog as encoded JSON, rebuilt only when the catalog changed
+   * since the last call.
+   */
+  @Timed(SERVICE_TIMER)
+  public CatalogSnapshot getCatalogSnapshot() {
+    return catalogJson.snapshot();
+  }
+
+  /**
+   * Changes on every successful write; drives ETags for the listing
+   * endpoints.
+   */
+  public long getCatalogVersion() {
+    return repository.version();
+  }
+
+  @Timed(SERVICE_TIMER)
+  public ItemPage getItemPage(String after, int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    List<Item> items = repository.findPage(after, limit);
+    String next = items.size() == limit ? items.get(items.size() - 1).getSKU() : null;
+    return new ItemPage(items, next);
+  }
+
+  public Stream<Item> streamItems() {
+    return repository.stream();
+  }
+
+  @Timed(SERVICE_TIMER)
+  public Optional<Item> getItem(String sku) {
+    return repository.findBySku(sku);
   }
 
+  @Timed(SERVICE_TIMER)
+  public List<Item> findItems(String color, String size) {
+    return listings.getUnchecked(new ListingKey(repository.version(), color, size));
+  }
+
+  @Timed(SERVICE_TIMER)
   public Item createItem(Item newItem) {
-    items.add(newItem);
+    validate(newItem);
+    if (!repository.reserve(newItem)) {
+      throw new DuplicateItemException(newItem.getSKU());
+    }
+    // Readers, and snapshots, only see the item once it is durable
+    try {
+      journal.append(List.of(newItem), repository::publishAll);
+    } catch (RuntimeException e) {
+      repository.release(newItem);
+      throw e;
+    }
+    catalogJson.add(newItem);
+    listings.invalidateAll();
     return newItem;
   }
+
+  @Timed(SERVICE_TIMER)
+  public List<ItemResult> createItems(Collection<Item> newItems) {
+    return createItems(newItems, 0);
+  }
+
+  /**
+   * Bulk write path: validates and reserves the chunk in one pass, then makes
+   * every new item durable, and visible, with a single journal commit. Each
+   * item succeeds or fails on its own; a bad item never rejects the rest of
+   * the chunk.
+   *
+   * @param firstIndex position of the first item in the caller's request,
+   *                   used to number the results
+   */
+  @Timed(SERVICE_TIMER)
+  public List<ItemResult> createItems(Collection<Item> newItems, int firstIndex) {
+    List<ItemResult> results = new ArrayList<>(newItems.size());
+    List<Item> created = new ArrayList<>(newItems.size());
+    int index = firstIndex;
+    for (Item item : newItems) {
+      String sku = item == null ? null : item.getSKU();
+      try {
+        validate(item);
+      } catch (IllegalArgumentException e) {
+        results.add(new ItemResult(index++, sku, 400, e.getMessage()));
+        continue;
+      }
+      if (repository.reserve(item)) {
+        results.add(new ItemResult(index++, sku, 201, null));
+        created.add(item);
+      } else {
+        results.add(new ItemResult(index++, sku, 409, DuplicateItemException.messageFor(sku)));
+      }
+    }
+    if (created.isEmpty()) {
+      return results;
+    }
+
+    try {
+      journal.append(created, repository::publishAll);
+    } catch (RuntimeException e) {
+      // Nothing in the chunk became durable or visible, release every claim
+      for (Item item : created) {
+        repository.release(item);
+      }
+      for (int i = 0; i < results.size(); i++) {
+        ItemResult result = results.get(i);
+        if (result.succeeded()) {
+          results.set(i, new ItemResult(result.index(), result.sku(), 503, e.getMessage()));
+        }
+      }
+      return results;
+    }
+    for (Item item : created) {
+      catalogJson.add(item);
+    }
+    listings.invalidateAll();
+    return results;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    GuavaCacheMetrics.monitor(registry, listings, "items.listings");
+    Gauge.builder("items.listings.hit.ratio", listings, cache -> cache.stats().hitRate())
+        .description("Share of listing reads served from the cache")
+        .register(registry);
+  }
+
+  private static void validate(Item item) {
+    if (item == null || item.getSKU() == null || item.getSKU().isBlank()) {
+      throw new IllegalArgumentException("Item SKU is required");
+    }
+  }
+
+  private record ListingKey(long version, String color, String size) {
+  }
 }
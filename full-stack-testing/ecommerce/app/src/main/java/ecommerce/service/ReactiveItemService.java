@@ -0,0 +1,61 @@
+package ecommerce.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import ecommerce.model.Item;
+import ecommerce.model.ItemPage;
+import ecommerce.model.ItemResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking facade over {@link ItemService} for the reactive API. Listings
+ * are pulled lazily from the catalog iterator as the subscriber requests
+ * them, so a slow client throttles the read instead of buffering the catalog.
+ */
+@Service
+public class ReactiveItemService {
+
+  private final ItemService itemService;
+
+  @Autowired
+  public ReactiveItemService(ItemService itemService) {
+    this.itemService = itemService;
+  }
+
+  public Flux<Item> getAllItems() {
+    return Flux.fromStream(itemService::streamItems);
+  }
+
+  public long getCatalogVersion() {
+    return itemService.getCatalogVersion();
+  }
+
+  public Flux<Item> findItems(String color, String size) {
+    return Flux.defer(() -> Flux.fromIterable(itemService.findItems(color, size)));
+  }
+
+  public Mono<ItemPage> getItemPage(String after, int limit) {
+    return Mono.fromCallable(() -> itemService.getItemPage(after, limit));
+  }
+
+  public Mono<Item> getItem(String sku) {
+    return Mono.defer(() -> Mono.justOrEmpty(itemService.getItem(sku)));
+  }
+
+  // Writes go through the blocking service on a worker so they never stall
+  // the event loop.
+  public Mono<Item> createItem(Item newItem) {
+    return Mono.fromCallable(() -> itemService.createItem(newItem))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  public Mono<List<ItemResult>> createItems(List<Item> newItems, int firstIndex) {
+    return Mono.fromCallable(() -> itemService.createItems(newItems, firstIndex))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+}
@@ -0,0 +1,73 @@
+package ecommerce;
+
+import org.junit.jupiter.api.Test;
+
+import ecommerce.model.CompactItem;
+import ecommerce.model.Item;
+import ecommerce.model.ItemDictionary;
+import ecommerce.repository.ItemColumnStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactItemTest {
+
+  @Test
+  public void compactItem_ShouldRoundTripThroughDictionaries() {
+    ItemDictionary colors = new ItemDictionary();
+    ItemDictionary sizes = new ItemDictionary();
+
+    CompactItem compact = CompactItem.of(new Item("984058981", "Green", null), colors, sizes);
+    Item item = compact.toItem(colors, sizes);
+
+    assertEquals(984058981L, compact.getSku());
+    assertEquals("984058981", item.getSKU());
+    assertEquals("Green", item.getColor());
+    assertNull(item.getSize());
+    assertSame(colors.intern(new String("Green")), item.getColor());
+  }
+
+  @Test
+  public void dictionary_ShouldStopInterningWhenFull() {
+    ItemDictionary colors = new ItemDictionary(2);
+    assertEquals(0, colors.encode("Red"));
+    assertEquals(1, colors.encode("Blue"));
+
+    String green = new String("Green");
+    assertEquals(ItemDictionary.OVERFLOW, colors.encode(green));
+    assertSame(green, colors.intern(green));
+    assertEquals(2, colors.size());
+    // Values it already holds are still interned
+    assertSame(colors.intern("Red"), colors.intern(new String("Red")));
+    assertThrows(IllegalArgumentException.class, () -> new ItemDictionary(0));
+  }
+
+  @Test
+  public void compactItem_ShouldRejectSkusThatDoNotRoundTrip() {
+    assertFalse(CompactItem.isCompactSku("0123"));
+    assertFalse(CompactItem.isCompactSku("12AB"));
+    assertFalse(CompactItem.isCompactSku("-1"));
+    assertTrue(CompactItem.isCompactSku("0"));
+    assertThrows(IllegalArgumentException.class, () -> CompactItem.parseSku("0123"));
+  }
+
+  @Test
+  public void columnStore_ShouldGrowAndReturnRowsInInsertionOrder() {
+    ItemColumnStore store = new ItemColumnStore(new ItemDictionary(), new ItemDictionary(), 16);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, store.add(new Item(String.valueOf(500 + i), i % 2 == 0 ? "Red" : "Blue", "M")));
+    }
+
+    assertEquals(100, store.size());
+    assertEquals(599L, store.sku(99));
+    assertEquals("Blue", store.get(1).getColor());
+
+    List<Item> items = new ArrayList<>();
+    store.forEach(items::add);
+    assertEquals(100, items.size());
+    assertEquals("500", items.get(0).getSKU());
+    assertThrows(IndexOutOfBoundsException.class, () -> store.get(100));
+  }
+}
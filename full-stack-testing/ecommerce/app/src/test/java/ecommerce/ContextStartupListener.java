@@ -0,0 +1,51 @@
+package ecommerce;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.core.Ordered;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+/**
+ * Reports, per test class, how long its application context took to start,
+ * or that it was reused from Spring's context cache. Runs before every other
+ * listener, so the first getApplicationContext() call, the one that loads
+ * the context, happens here. Lines go to stdout and, when the build sets
+ * {@code test.contextStartupReport}, to that file.
+ */
+public class ContextStartupListener extends AbstractTestExecutionListener {
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+
+  @Override
+  public void beforeTestClass(TestContext testContext) {
+    boolean cached = testContext.hasApplicationContext();
+    long started = System.nanoTime();
+    testContext.getApplicationContext();
+    long millis = (System.nanoTime() - started) / 1_000_000;
+    report(String.format("%-60s %s", testContext.getTestClass().getName(),
+        cached ? "reused cached context" : "started context in " + millis + " ms"));
+  }
+
+  private static synchronized void report(String line) {
+    System.out.println(line);
+    String file = System.getProperty("test.contextStartupReport");
+    if (file == null) {
+      return;
+    }
+    try {
+      Path path = Path.of(file);
+      Files.createDirectories(path.getParent());
+      Files.writeString(path, line + System.lineSeparator(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
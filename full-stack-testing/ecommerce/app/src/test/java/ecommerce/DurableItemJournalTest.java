@@ -0,0 +1,156 @@
+package ecommerce;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import ecommerce.model.Item;
+import ecommerce.persistence.DurableItemJournal;
+import ecommerce.repository.ItemRepository;
+import ecommerce.service.ItemService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DurableItemJournalTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  public void restart_ShouldRecoverSnapshotAndLogTail() throws Exception {
+    ItemRepository repository = new ItemRepository();
+    DurableItemJournal journal = open(repository);
+    ItemService itemService = service(repository, journal);
+    for (int i = 0; i < 500; i++) {
+      itemService.createItem(new Item(String.valueOf(100000000 + i), "Black", "S"));
+    }
+    journal.snapshot();
+    itemService.createItems(List.of(
+        new Item("200000001", "White", "M"),
+        new Item("ABC-1", "White", null)));
+    journal.destroy();
+
+    ItemRepository recovered = new ItemRepository();
+    DurableItemJournal reopened = open(recovered);
+    try {
+      // 500 + 2 written, plus the 3 seeded items captured by the snapshot
+      assertEquals(505, recovered.size());
+      assertEquals("White", recovered.findBySku("200000001").orElseThrow().getColor());
+      assertNull(recovered.findBySku("ABC-1").orElseThrow().getSize());
+      assertEquals(500, recovered.findByAttributes("Black", "S").size());
+    } finally {
+      reopened.destroy();
+    }
+  }
+
+  @Test
+  public void restart_ShouldRecoverValuesBeyondDictionaryLimit() throws Exception {
+    ItemRepository repository = new ItemRepository();
+    DurableItemJournal journal = open(repository);
+    ItemService itemService = service(repository, journal);
+    // More distinct colors than the repository interns
+    for (int i = 0; i < 1100; i++) {
+      itemService.createItem(new Item(String.valueOf(100000000 + i), "Color" + i, "S"));
+    }
+    journal.snapshot();
+    journal.destroy();
+
+    ItemRepository recovered = new ItemRepository();
+    DurableItemJournal reopened = open(recovered);
+    try {
+      assertEquals(1103, recovered.size());
+      assertEquals("Color0", recovered.findBySku("100000000").orElseThrow().getColor());
+      assertEquals("Color1099", recovered.findBySku("100001099").orElseThrow().getColor());
+    } finally {
+      reopened.destroy();
+    }
+  }
+
+  @Test
+  public void snapshot_ShouldDeleteCoveredLogGenerations() throws Exception {
+    ItemRepository repository = new ItemRepository();
+    DurableItemJournal journal = open(repository);
+    ItemService itemService = service(repository, journal);
+    itemService.createItem(new Item("100000001", "Black", "S"));
+    journal.snapshot();
+    itemService.createItem(new Item("100000002", "Black", "S"));
+    journal.snapshot();
+    journal.destroy();
+
+    try (Stream<Path> files = Files.list(directory)) {
+      List<String> names = files.map(file -> file.getFileName().toString()).sorted().toList();
+      assertEquals(List.of("items-000000000002.snap", "items-000000000003.log"), names);
+    }
+  }
+
+  @Test
+  public void concurrentWrites_ShouldAllBeDurable() throws Exception {
+    ItemRepository repository = new ItemRepository();
+    DurableItemJournal journal = open(repository);
+    ItemService itemService = service(repository, journal);
+    List<Future<?>> futures = new ArrayList<>();
+    try (ExecutorService writers = Executors.newFixedThreadPool(16)) {
+      for (int t = 0; t < 16; t++) {
+        final int base = t * 200;
+        futures.add(writers.submit(() -> {
+          for (int i = 0; i < 200; i++) {
+            itemService.createItem(new Item(String.valueOf(300000000 + base + i), "Red", "L"));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+    journal.destroy();
+
+    ItemRepository recovered = new ItemRepository();
+    open(recovered).destroy();
+    assertEquals(3200, recovered.size());
+  }
+
+  @Test
+  public void appendsRacingDestroy_ShouldEachCompleteOrFail() throws Exception {
+    DurableItemJournal journal = open(new ItemRepository());
+    List<Future<?>> futures = new ArrayList<>();
+    try (ExecutorService writers = Executors.newFixedThreadPool(8)) {
+      for (int t = 0; t < 8; t++) {
+        final int base = t * 10_000;
+        futures.add(writers.submit(() -> {
+          for (int i = 0; i < 10_000; i++) {
+            try {
+              journal.append(List.of(new Item(String.valueOf(400000000 + base + i), "Red", "L")));
+            } catch (IllegalStateException closed) {
+              return;
+            }
+          }
+        }));
+      }
+      Thread.sleep(20);
+      journal.destroy();
+      // None of the writers may be left waiting on a commit nobody completes
+      for (Future<?> future : futures) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+    }
+  }
+
+  private DurableItemJournal open(ItemRepository repository) throws Exception {
+    return new DurableItemJournal(repository, directory, DataSize.ofKilobytes(64), Duration.ofHours(1));
+  }
+
+  private static ItemService service(ItemRepository repository, DurableItemJournal journal) {
+    return new ItemService(repository, journal, 1000, Duration.ofMinutes(5));
+  }
+}
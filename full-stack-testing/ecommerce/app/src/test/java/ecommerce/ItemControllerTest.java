@@ -5,20 +5,34 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import ecommerce.controller.ItemController;
 import ecommerce.model.Item;
+import ecommerce.model.ItemPage;
+import ecommerce.model.ItemResult;
+import ecommerce.service.CatalogSnapshot;
+import ecommerce.service.DuplicateItemException;
 import ecommerce.service.ItemService;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ItemController.class)
+@ActiveProfiles("test")
 public class ItemControllerTest {
 
   @Autowired
@@ -42,4 +56,196 @@ public class ItemControllerTest {
         .andExpect(jsonPath("$.color").value("Black"))
         .andExpect(jsonPath("$.size").value("XL"));
   }
+
+  @Test
+  public void createItem_ShouldReturnConflictForDuplicateSku() throws Exception {
+    when(itemService.createItem(any(Item.class))).thenThrow(new DuplicateItemException("984058981"));
+
+    mockMvc.perform(post("/items")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"sku\":\"984058981\",\"color\":\"Green\",\"size\":\"M\"}"))
+        .andExpect(status().isConflict());
+  }
+
+  @Test
+  public void getItem_ShouldReturnItemOrNotFound() throws Exception {
+    when(itemService.getItem("984058981")).thenReturn(Optional.of(new Item("984058981", "Green", "M")));
+    when(itemService.getItem("000000000")).thenReturn(Optional.empty());
+
+    mockMvc.perform(get("/items/984058981"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.color").value("Green"));
+    mockMvc.perform(get("/items/000000000"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  public void getAllItems_ShouldFilterByColorAndSize() throws Exception {
+    when(itemService.findItems(eq("Green"), isNull()))
+        .thenReturn(Arrays.asList(new Item("984058981", "Green", "M")));
+
+    mockMvc.perform(get("/items").param("color", "Green"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].sku").value("984058981"))
+        .andExpect(jsonPath("$.length()").value(1));
+  }
+
+  @Test
+  public void getItemPage_ShouldReturnItemsAndNextCursor() throws Exception {
+    when(itemService.getItemPage("984058981", 1))
+        .thenReturn(new ItemPage(Arrays.asList(new Item("984058982", "Blue", "L")), "984058982"));
+
+    mockMvc.perform(get("/items").param("limit", "1").param("after", "984058981"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].sku").value("984058982"))
+        .andExpect(jsonPath("$.nextCursor").value("984058982"));
+  }
+
+  @Test
+  public void streamItems_ShouldWriteNdjsonLines() throws Exception {
+    when(itemService.streamItems()).thenReturn(Stream.of(
+        new Item("984058981", "Green", "M"),
+        new Item("984058982", "Blue", "L")));
+
+    MvcResult result = mockMvc.perform(get("/items/stream").accept("application/x-ndjson"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-ndjson"))
+        .andExpect(content().string(
+            "{\"sku\":\"984058981\",\"color\":\"Green\",\"size\":\"M\"}\n"
+                + "{\"sku\":\"984058982\",\"color\":\"Blue\",\"size\":\"L\"}\n"));
+  }
+
+  @Test
+  public void streamItems_ShouldWriteJsonArrayByDefault() throws Exception {
+    when(itemService.streamItems()).thenReturn(Stream.of(
+        new Item("984058981", "Green", "M"),
+        new Item("984058982", "Blue", "L")));
+
+    MvcResult result = mockMvc.perform(get("/items/stream"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[1].sku").value("984058982"));
+  }
+
+  @Test
+  public void createItems_ShouldReportResultPerItemFromNdjson() throws Exception {
+    when(itemService.createItems(anyList(), anyInt())).thenReturn(List.of(
+        new ItemResult(0, "111222333", 201, null),
+        new ItemResult(1, "984058981", 409, "Item with SKU 984058981 already exists")));
+
+    mockMvc.perform(post("/items/batch")
+        .contentType("application/x-ndjson")
+        .content("{\"sku\":\"111222333\",\"color\":\"Purple\",\"size\":\"XXL\"}\n"
+            + "{\"sku\":\"984058981\",\"color\":\"Green\",\"size\":\"M\"}\n"))
+        .andExpect(status().isMultiStatus())
+        .andExpect(jsonPath("$.created").value(1))
+        .andExpect(jsonPath("$.failed").value(1))
+        .andExpect(jsonPath("$.results[1].status").value(409));
+  }
+
+  @Test
+  public void createItems_ShouldReportWrittenItemsWhenBodyIsTruncated() throws Exception {
+    when(itemService.createItems(anyList(), eq(0))).thenReturn(List.of(
+        new ItemResult(0, "111222333", 201, null),
+        new ItemResult(1, "111222334", 201, null)));
+
+    mockMvc.perform(post("/items/batch")
+        .contentType("application/x-ndjson")
+        .content("{\"sku\":\"111222333\",\"color\":\"Purple\",\"size\":\"XXL\"}\n"
+            + "{\"sku\":\"111222334\",\"color\":\"Purple\",\"size\":\"XL\"}\n"
+            + "{\"sku\":\"1112223"))
+        .andExpect(status().isMultiStatus())
+        .andExpect(jsonPath("$.created").value(2))
+        .andExpect(jsonPath("$.failed").value(1))
+        .andExpect(jsonPath("$.results[1].sku").value("111222334"))
+        .andExpect(jsonPath("$.results[2].index").value(2))
+        .andExpect(jsonPath("$.results[2].status").value(400));
+  }
+
+  @Test
+  public void createItems_ShouldAcceptJsonArray() throws Exception {
+    when(itemService.createItems(anyList(), anyInt())).thenReturn(List.of(
+        new ItemResult(0, "111222333", 201, null),
+        new ItemResult(1, "111222334", 201, null)));
+
+    mockMvc.perform(post("/items/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("[{\"sku\":\"111222333\",\"color\":\"Purple\",\"size\":\"XXL\"},"
+            + "{\"sku\":\"111222334\",\"color\":\"Purple\",\"size\":\"XL\"}]"))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.created").value(2))
+        .andExpect(jsonPath("$.results[0].error").doesNotExist());
+  }
+
+  @Test
+  public void getAllItems_ShouldReturnNotModifiedForCurrentETag() throws Exception {
+    when(itemService.getCatalogVersion()).thenReturn(7L);
+    when(itemService.getCatalogSnapshot()).thenReturn(new CatalogSnapshot(7L, "[]".getBytes()));
+
+    mockMvc.perform(get("/items"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"7\""));
+    mockMvc.perform(get("/items").header("If-None-Match", "\"7\""))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+    mockMvc.perform(get("/items").header("If-None-Match", "\"6\""))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  public void getAllItems_ShouldTagEachEncodingSeparately() throws Exception {
+    byte[] json = "[]".getBytes();
+    when(itemService.getCatalogVersion()).thenReturn(7L);
+    when(itemService.getCatalogSnapshot()).thenReturn(new CatalogSnapshot(7L, json));
+
+    mockMvc.perform(get("/items").header("Accept-Encoding", "gzip"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"7-gzip\""));
+    // Either representation of the current version is still valid
+    mockMvc.perform(get("/items").header("Accept-Encoding", "gzip").header("If-None-Match", "\"7\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", "\"7\""));
+    mockMvc.perform(get("/items").header("If-None-Match", "\"7-gzip\""))
+        .andExpect(status().isNotModified());
+    mockMvc.perform(get("/items").header("Accept-Encoding", "gzip").header("If-None-Match", "\"6-gzip\""))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  public void getAllItems_ShouldHonorAcceptEncodingQualities() throws Exception {
+    byte[] json = "[]".getBytes();
+    when(itemService.getCatalogSnapshot()).thenReturn(new CatalogSnapshot(1L, json));
+
+    mockMvc.perform(get("/items").header("Accept-Encoding", "gzip;q=0, identity"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("Content-Encoding"))
+        .andExpect(content().bytes(json));
+    mockMvc.perform(get("/items").header("Accept-Encoding", "br, *;q=0.5"))
+        .andExpect(header().string("Content-Encoding", "gzip"));
+    mockMvc.perform(get("/items").header("Accept-Encoding", "GZIP; Q=0.8"))
+        .andExpect(header().string("Content-Encoding", "gzip"));
+  }
+
+  @Test
+  public void getAllItems_ShouldWritePreEncodedSnapshot() throws Exception {
+    byte[] json = "[{\"sku\":\"984058981\",\"color\":\"Green\",\"size\":\"M\"}]".getBytes();
+    when(itemService.getCatalogSnapshot()).thenReturn(new CatalogSnapshot(1L, json));
+
+    mockMvc.perform(get("/items"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(content().bytes(json));
+    mockMvc.perform(get("/items").header("Accept-Encoding", "gzip"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Encoding", "gzip"))
+        .andExpect(content().bytes(new CatalogSnapshot(1L, json).getGzip()));
+  }
 }
@@ -0,0 +1,266 @@
+package ecommerce;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ecommerce.model.Item;
+import ecommerce.model.ItemPage;
+import ecommerce.model.ItemResult;
+import ecommerce.repository.ItemRepository;
+import ecommerce.service.CatalogSnapshot;
+import ecommerce.service.DuplicateItemException;
+import ecommerce.service.ItemService;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemServiceTest {
+
+  private ItemRepository repository;
+  private ItemService itemService;
+
+  @BeforeEach
+  public void setup() {
+    repository = new ItemRepository();
+    itemService = new ItemService(repository);
+  }
+
+  @Test
+  public void getItem_ShouldFindSeededItemBySku() {
+    Item item = itemService.getItem("984058982").orElseThrow();
+    assertEquals("Blue", item.getColor());
+    assertTrue(itemService.getItem("000000000").isEmpty());
+  }
+
+  @Test
+  public void findItems_ShouldIntersectColorAndSizeIndexes() {
+    itemService.createItem(new Item("100000001", "Green", "L"));
+    itemService.createItem(new Item("100000002", "Green", "M"));
+
+    assertEquals(3, itemService.findItems("Green", null).size());
+    assertEquals(2, itemService.findItems(null, "M").size());
+
+    List<Item> greenMedium = itemService.findItems("Green", "M");
+    assertEquals(2, greenMedium.size());
+    assertEquals("100000002", greenMedium.get(0).getSKU());
+    assertEquals("984058981", greenMedium.get(1).getSKU());
+
+    assertTrue(itemService.findItems("Purple", "M").isEmpty());
+  }
+
+  @Test
+  public void getItemPage_ShouldWalkCatalogBySkuCursor() {
+    itemService.createItem(new Item("100000001", "Green", "L"));
+
+    ItemPage first = itemService.getItemPage(null, 2);
+    assertEquals(2, first.items().size());
+    assertEquals("100000001", first.items().get(0).getSKU());
+    assertEquals("984058981", first.nextCursor());
+
+    ItemPage second = itemService.getItemPage(first.nextCursor(), 2);
+    assertEquals(2, second.items().size());
+    assertEquals("984058982", second.items().get(0).getSKU());
+
+    ItemPage last = itemService.getItemPage(second.nextCursor(), 2);
+    assertTrue(last.items().isEmpty());
+    assertNull(last.nextCursor());
+
+    assertThrows(IllegalArgumentException.class, () -> itemService.getItemPage(null, 0));
+  }
+
+  @Test
+  public void getAllItems_ShouldServeCachedListingUntilCatalogChanges() {
+    List<Item> first = itemService.getAllItems();
+    assertSame(first, itemService.getAllItems());
+    long version = itemService.getCatalogVersion();
+
+    itemService.createItem(new Item("100000001", "Green", "L"));
+
+    assertTrue(itemService.getCatalogVersion() > version);
+    List<Item> refreshed = itemService.getAllItems();
+    assertEquals(first.size() + 1, refreshed.size());
+    assertEquals(2, itemService.findItems("Green", null).size());
+  }
+
+  @Test
+  public void getCatalogSnapshot_ShouldMatchCatalogAfterWrites() throws Exception {
+    ObjectMapper mapper = new ObjectMapper();
+    CatalogSnapshot before = itemService.getCatalogSnapshot();
+    assertSame(before, itemService.getCatalogSnapshot());
+    assertEquals(mapper.writeValueAsString(itemService.getAllItems()), new String(before.getJson()));
+
+    itemService.createItem(new Item("100000001", "Green", "L"));
+    itemService.createItems(List.of(new Item("999999999", "Red", "M")));
+
+    CatalogSnapshot after = itemService.getCatalogSnapshot();
+    assertNotSame(before, after);
+    assertEquals(mapper.writeValueAsString(itemService.getAllItems()), new String(after.getJson()));
+
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(after.getGzip()))) {
+      assertArrayEquals(after.getJson(), gzip.readAllBytes());
+    }
+  }
+
+  @Test
+  public void getCatalogSnapshot_ShouldServeRecreatedSkuAfterRollback() throws Exception {
+    ObjectMapper mapper = new ObjectMapper();
+    ItemService failing = new ItemService(repository, (items, onDurable) -> {
+      throw new IllegalStateException("disk full");
+    }, 1000, Duration.ofMinutes(5));
+    itemService.getCatalogSnapshot();
+
+    assertThrows(IllegalStateException.class, () -> failing.createItem(new Item("500000004", "Black", "S")));
+    itemService.createItem(new Item("500000004", "White", "M"));
+    String json = new String(itemService.getCatalogSnapshot().getJson());
+    assertEquals(mapper.writeValueAsString(itemService.getAllItems()), json);
+    assertTrue(json.contains("\"White\""));
+
+    // Removed and re-created under the same SKU: the new item is served
+    repository.remove(repository.findBySku("500000004").orElseThrow());
+    itemService.createItem(new Item("500000004", "Orange", "L"));
+    json = new String(itemService.getCatalogSnapshot().getJson());
+    assertEquals(mapper.writeValueAsString(itemService.getAllItems()), json);
+    assertFalse(json.contains("\"White\""));
+  }
+
+  @Test
+  public void createItem_ShouldRejectDuplicateAndMissingSku() {
+    assertThrows(DuplicateItemException.class,
+        () -> itemService.createItem(new Item("984058981", "Black", "XL")));
+    assertThrows(IllegalArgumentException.class,
+        () -> itemService.createItem(new Item(null, "Black", "XL")));
+    assertEquals("Green", itemService.getItem("984058981").orElseThrow().getColor());
+  }
+
+  @Test
+  public void createItem_ShouldHideItemUntilJournalCommitted() {
+    ItemService journaled = new ItemService(repository, (items, onDurable) -> {
+      // Not durable yet: invisible to readers, but the SKU is already taken
+      assertTrue(repository.findBySku("500000001").isEmpty());
+      assertEquals(3, repository.findAll().size());
+      assertFalse(repository.reserve(new Item("500000001", "Red", "S")));
+      onDurable.accept(items);
+    }, 1000, Duration.ofMinutes(5));
+
+    journaled.createItem(new Item("500000001", "Black", "S"));
+    assertEquals("Black", repository.findBySku("500000001").orElseThrow().getColor());
+  }
+
+  @Test
+  public void createItem_ShouldDiscardItemWhenJournalFails() {
+    ItemService failing = new ItemService(repository, (items, onDurable) -> {
+      throw new IllegalStateException("disk full");
+    }, 1000, Duration.ofMinutes(5));
+
+    assertThrows(IllegalStateException.class, () -> failing.createItem(new Item("500000002", "Black", "S")));
+    List<ItemResult> results = failing.createItems(List.of(
+        new Item("984058981", "Black", "S"),
+        new Item("500000003", "Black", "S")));
+    assertEquals(409, results.get(0).status());
+    assertEquals(503, results.get(1).status());
+    assertTrue(repository.findBySku("500000002").isEmpty());
+    assertEquals(3, repository.findAll().size());
+
+    // The SKU was released and can be created once the journal works again
+    itemService.createItem(new Item("500000002", "White", "M"));
+    assertEquals("White", repository.findBySku("500000002").orElseThrow().getColor());
+  }
+
+  @Test
+  public void createItems_ShouldReportEachItemIndependently() {
+    List<ItemResult> results = itemService.createItems(List.of(
+        new Item("400000001", "Black", "S"),
+        new Item("984058981", "Black", "S"),
+        new Item("", "Black", "S"),
+        new Item("400000002", "Black", "M")), 10);
+
+    assertEquals(4, results.size());
+    assertEquals(201, results.get(0).status());
+    assertEquals(409, results.get(1).status());
+    assertEquals(400, results.get(2).status());
+    assertEquals(201, results.get(3).status());
+    assertEquals(13, results.get(3).index());
+    assertEquals(2, itemService.findItems("Black", null).size());
+  }
+
+  @Test
+  public void createItem_ShouldNotLoseConcurrentWrites() throws Exception {
+    final int threads = 16;
+    final int itemsPerThread = 500;
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+
+    for (int t = 0; t < threads; t++) {
+      final int base = t * itemsPerThread;
+      futures.add(pool.submit(() -> {
+        start.await();
+        for (int i = 0; i < itemsPerThread; i++) {
+          int n = base + i;
+          itemService.createItem(new Item(String.valueOf(200000000 + n),
+              n % 2 == 0 ? "Black" : "White", n % 3 == 0 ? "S" : "XL"));
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+    int total = threads * itemsPerThread;
+    assertEquals(total + 3, repository.size());
+    assertEquals(total + 3, itemService.getAllItems().size());
+    assertEquals(total / 2, itemService.findItems("Black", null).size());
+    for (int n = 0; n < total; n++) {
+      assertTrue(itemService.getItem(String.valueOf(200000000 + n)).isPresent());
+    }
+  }
+
+  @Test
+  public void createItem_ShouldLetExactlyOneWriterWinASku() throws Exception {
+    final int threads = 32;
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Boolean>> futures = new ArrayList<>();
+
+    for (int t = 0; t < threads; t++) {
+      final String color = "Color" + t;
+      futures.add(pool.submit(() -> {
+        start.await();
+        try {
+          itemService.createItem(new Item("300000000", color, "M"));
+          return true;
+        } catch (DuplicateItemException e) {
+          return false;
+        }
+      }));
+    }
+    start.countDown();
+    int winners = 0;
+    for (Future<Boolean> future : futures) {
+      if (future.get()) {
+        winners++;
+      }
+    }
+    pool.shutdown();
+
+    assertEquals(1, winners);
+    String color = itemService.getItem("300000000").orElseThrow().getColor();
+    assertEquals(1, itemService.findItems(color, "M").size());
+  }
+}
@@ -0,0 +1,122 @@
+package ecommerce;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import ecommerce.controller.ReactiveItemController;
+import ecommerce.model.Item;
+import ecommerce.model.ItemResult;
+import ecommerce.service.DuplicateItemException;
+import ecommerce.service.ItemService;
+import ecommerce.service.ReactiveItemService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+// Mirrors ItemControllerTest against the reactive variant of the API
+@WebFluxTest(ReactiveItemController.class)
+@ActiveProfiles("test")
+@Import(ReactiveItemService.class)
+public class ReactiveItemControllerTest {
+
+  @Autowired
+  private WebTestClient webTestClient;
+
+  @MockBean
+  private ItemService itemService;
+
+  @Test
+  public void createItem_ShouldReturnCreatedItem() {
+    Item newItem = new Item("123456789", "Black", "XL");
+    when(itemService.createItem(any(Item.class))).thenReturn(newItem);
+
+    webTestClient.post().uri("/items")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"sku\":\"123456789\",\"color\":\"Black\",\"size\":\"XL\"}")
+        .exchange()
+        .expectStatus().isCreated()
+        .expectBody()
+        .jsonPath("$.sku").isEqualTo("123456789")
+        .jsonPath("$.color").isEqualTo("Black")
+        .jsonPath("$.size").isEqualTo("XL");
+  }
+
+  @Test
+  public void createItem_ShouldReturnConflictForDuplicateSku() {
+    when(itemService.createItem(any(Item.class))).thenThrow(new DuplicateItemException("984058981"));
+
+    webTestClient.post().uri("/items")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"sku\":\"984058981\",\"color\":\"Green\",\"size\":\"M\"}")
+        .exchange()
+        .expectStatus().isEqualTo(409);
+  }
+
+  @Test
+  public void getItem_ShouldReturnItemOrNotFound() {
+    when(itemService.getItem("984058981")).thenReturn(Optional.of(new Item("984058981", "Green", "M")));
+    when(itemService.getItem("000000000")).thenReturn(Optional.empty());
+
+    webTestClient.get().uri("/items/984058981").exchange()
+        .expectStatus().isOk()
+        .expectBody().jsonPath("$.color").isEqualTo("Green");
+    webTestClient.get().uri("/items/000000000").exchange()
+        .expectStatus().isNotFound();
+  }
+
+  @Test
+  public void getAllItems_ShouldReturnCatalogAsJsonArray() {
+    when(itemService.streamItems()).thenReturn(Stream.of(
+        new Item("984058981", "Green", "M"),
+        new Item("984058982", "Blue", "L")));
+
+    webTestClient.get().uri("/items").exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.length()").isEqualTo(2)
+        .jsonPath("$[0].sku").isEqualTo("984058981");
+  }
+
+  @Test
+  public void streamItems_ShouldWriteNdjsonLines() {
+    when(itemService.streamItems()).thenReturn(Stream.of(
+        new Item("984058981", "Green", "M"),
+        new Item("984058982", "Blue", "L")));
+
+    webTestClient.get().uri("/items/stream")
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+        .expectBodyList(Item.class).hasSize(2);
+  }
+
+  @Test
+  public void createItems_ShouldReportResultPerItemFromNdjson() {
+    when(itemService.createItems(anyList(), anyInt())).thenReturn(List.of(
+        new ItemResult(0, "111222333", 201, null),
+        new ItemResult(1, "984058981", 409, "Item with SKU 984058981 already exists")));
+
+    webTestClient.post().uri("/items/batch")
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .bodyValue("{\"sku\":\"111222333\",\"color\":\"Purple\",\"size\":\"XXL\"}\n"
+            + "{\"sku\":\"984058981\",\"color\":\"Green\",\"size\":\"M\"}\n")
+        .exchange()
+        .expectStatus().isEqualTo(207)
+        .expectBody()
+        .jsonPath("$.created").isEqualTo(1)
+        .jsonPath("$.results[1].status").isEqualTo(409);
+  }
+}
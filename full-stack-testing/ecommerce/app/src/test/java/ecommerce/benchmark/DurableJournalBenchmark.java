@@ -0,0 +1,99 @@
+package ecommerce.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import ecommerce.model.Item;
+import ecommerce.persistence.DurableItemJournal;
+import ecommerce.repository.ItemRepository;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput of the durable write path and time to recover a large catalog.
+ * Sizes come from {@code -Dbenchmark.writers}, {@code -Dbenchmark.writes} and
+ * {@code -Dbenchmark.recovery.items}; the 10M default needs the 8g heap the
+ * benchmarkTest task configures. Run with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+public class DurableJournalBenchmark {
+
+  private static final String[] COLORS = { "Black", "White", "Red", "Green", "Blue", "Yellow" };
+  private static final String[] SIZES = { "XS", "S", "M", "L", "XL", "XXL" };
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void durableWriteThroughput() throws Exception {
+    int writers = Integer.getInteger("benchmark.writers", 64);
+    int writes = Integer.getInteger("benchmark.writes", 200_000);
+    DurableItemJournal journal = open(new ItemRepository());
+
+    long started = System.nanoTime();
+    try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int w = 0; w < writers; w++) {
+        final int first = w * (writes / writers);
+        pool.execute(() -> {
+          for (int i = first; i < first + writes / writers; i++) {
+            journal.append(List.of(item(i)));
+          }
+        });
+      }
+    }
+    double seconds = (System.nanoTime() - started) / 1e9;
+    journal.destroy();
+
+    System.out.printf("durable single-item writes, %d writers: %.0f writes/s%n", writers, writes / seconds);
+  }
+
+  @Test
+  void recoverFromSnapshotAndLogTail() throws Exception {
+    int items = Integer.getInteger("benchmark.recovery.items", 10_000_000);
+    int tail = items / 100;
+
+    ItemRepository repository = new ItemRepository();
+    DurableItemJournal journal = open(repository);
+    List<Item> batch = new ArrayList<>(1000);
+    for (int i = 0; i < items; i++) {
+      Item item = item(i);
+      repository.save(item);
+      batch.add(item);
+      if (batch.size() == 1000 || i == items - tail - 1 || i == items - 1) {
+        journal.append(batch);
+        batch.clear();
+      }
+      if (i == items - tail - 1) {
+        journal.snapshot();
+      }
+    }
+    journal.destroy();
+    repository = null;
+
+    System.gc();
+    ItemRepository recovered = new ItemRepository();
+    long started = System.nanoTime();
+    open(recovered).destroy();
+    double seconds = (System.nanoTime() - started) / 1e9;
+
+    System.out.printf("recovered %d items (%d from the log tail) in %.2f s%n", items, tail, seconds);
+    assertEquals(items, recovered.size());
+  }
+
+  private DurableItemJournal open(ItemRepository repository) throws Exception {
+    return new DurableItemJournal(repository, directory, DataSize.ofMegabytes(64), Duration.ofHours(1));
+  }
+
+  private static Item item(int i) {
+    return new Item(String.valueOf(100_000_000 + i), COLORS[i % COLORS.length], SIZES[(i / 7) % SIZES.length]);
+  }
+}
@@ -0,0 +1,116 @@
+package ecommerce.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import ecommerce.metrics.AllocationMetricsInterceptor;
+import ecommerce.repository.ItemRepository;
+import ecommerce.service.ItemService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-call cost of the latency and allocation instrumentation, with the same
+ * percentile and histogram settings the application uses. Run with
+ * {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+public class InstrumentationOverheadBenchmark {
+
+  private static final int CALLS = 2_000_000;
+  private static final int ROUNDS = 5;
+  private static final double BUDGET_NANOS = 1_000;
+
+  // Keeps results live so the measured calls are not optimized away
+  private static volatile Object sink;
+
+  @Test
+  void timedServiceCallsStayUnderOneMicrosecond() {
+    MeterRegistry registry = registry();
+    ItemService plain = new ItemService(new ItemRepository());
+    AspectJProxyFactory factory = new AspectJProxyFactory(new ItemService(new ItemRepository()));
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new TimedAspect(registry));
+    ItemService timed = factory.getProxy();
+
+    double base = nanosPerCall(() -> sink = plain.getItem("984058981"));
+    double instrumented = nanosPerCall(() -> sink = timed.getItem("984058981"));
+    report("@Timed ItemService.getItem", base, instrumented);
+
+    assertTrue(registry.find(ItemService.SERVICE_TIMER).tag("method", "getItem").timer().count() > 0);
+    assertTrue(instrumented - base < BUDGET_NANOS);
+  }
+
+  @Test
+  void allocationTrackingStaysUnderOneMicrosecond() throws Exception {
+    MeterRegistry registry = registry();
+    AllocationMetricsInterceptor interceptor = new AllocationMetricsInterceptor(registry);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/984058981");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items/{sku}");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    double overhead = nanosPerCall(() -> {
+      interceptor.preHandle(request, response, this);
+      interceptor.afterCompletion(request, response, this, null);
+    });
+    System.out.printf("%-28s %7.1f ns/request%n", "allocation tracking", overhead);
+
+    assertEquals(1, registry.find(AllocationMetricsInterceptor.METRIC).summaries().size());
+    assertTrue(overhead < BUDGET_NANOS);
+  }
+
+  // Mirrors the distribution settings in application.properties
+  private static MeterRegistry registry() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    registry.config().meterFilter(new MeterFilter() {
+      @Override
+      public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        return DistributionStatisticConfig.builder()
+            .percentiles(0.5, 0.99, 0.999)
+            .percentilesHistogram(true)
+            .build()
+            .merge(config);
+      }
+    });
+    return registry;
+  }
+
+  private static void report(String label, double base, double instrumented) {
+    System.out.printf("%-28s %7.1f ns/call plain, %7.1f ns/call instrumented, %+7.1f ns%n",
+        label, base, instrumented, instrumented - base);
+  }
+
+  // Best of several rounds, the first ones double as warm-up
+  private static double nanosPerCall(Call call) {
+    double best = Double.MAX_VALUE;
+    try {
+      for (int round = 0; round < ROUNDS; round++) {
+        long started = System.nanoTime();
+        for (int i = 0; i < CALLS; i++) {
+          call.run();
+        }
+        best = Math.min(best, (System.nanoTime() - started) / (double) CALLS);
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+    return best;
+  }
+
+  @FunctionalInterface
+  private interface Call {
+    void run() throws Exception;
+  }
+}
@@ -0,0 +1,106 @@
+package ecommerce.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import ecommerce.model.CompactItem;
+import ecommerce.model.Item;
+import ecommerce.model.ItemDictionary;
+import ecommerce.repository.ItemColumnStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Retained heap per item for each item representation, measured as the
+ * growth of used heap across forced collections. Run with
+ * {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+public class ItemFootprintBenchmark {
+
+  private static final int ITEMS = 1_000_000;
+  private static final String[] COLORS = {
+      "Black", "White", "Red", "Green", "Blue", "Yellow", "Purple", "Orange", "Grey", "Brown", "Pink", "Navy" };
+  private static final String[] SIZES = { "XS", "S", "M", "L", "XL", "XXL" };
+
+  // Keeps each structure reachable while it is measured
+  private Object retained;
+
+  @Test
+  void compareBytesPerItem() {
+    double plain = measure("Item, own strings", () -> {
+      List<Item> items = new ArrayList<>(ITEMS);
+      for (int i = 0; i < ITEMS; i++) {
+        // new String(...) mimics values freshly parsed from JSON
+        items.add(new Item(sku(i), new String(COLORS[i % COLORS.length]), new String(SIZES[i % SIZES.length])));
+      }
+      return items;
+    });
+
+    double interned = measure("Item, interned attributes", () -> {
+      ItemDictionary colors = new ItemDictionary();
+      ItemDictionary sizes = new ItemDictionary();
+      List<Item> items = new ArrayList<>(ITEMS);
+      for (int i = 0; i < ITEMS; i++) {
+        items.add(new Item(sku(i), colors.intern(new String(COLORS[i % COLORS.length])),
+            sizes.intern(new String(SIZES[i % SIZES.length]))));
+      }
+      return items;
+    });
+
+    double compact = measure("CompactItem", () -> {
+      ItemDictionary colors = new ItemDictionary();
+      ItemDictionary sizes = new ItemDictionary();
+      List<CompactItem> items = new ArrayList<>(ITEMS);
+      for (int i = 0; i < ITEMS; i++) {
+        items.add(CompactItem.of(item(i), colors, sizes));
+      }
+      return items;
+    });
+
+    double columns = measure("ItemColumnStore", () -> {
+      ItemColumnStore store = new ItemColumnStore(new ItemDictionary(), new ItemDictionary(), ITEMS);
+      for (int i = 0; i < ITEMS; i++) {
+        store.add(item(i));
+      }
+      return store;
+    });
+
+    assertTrue(interned < plain);
+    assertTrue(compact < interned);
+    assertTrue(columns < compact);
+  }
+
+  private double measure(String label, Supplier<Object> build) {
+    retained = null;
+    long before = usedHeap();
+    retained = build.get();
+    long after = usedHeap();
+    double perItem = (after - before) / (double) ITEMS;
+    System.out.printf("%-28s %7.1f bytes/item%n", label, perItem);
+    return perItem;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    long used = Long.MAX_VALUE;
+    // Several passes let the collector settle, keep the lowest reading
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+      used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+    }
+    return used;
+  }
+
+  private static Item item(int i) {
+    return new Item(sku(i), COLORS[i % COLORS.length], SIZES[i % SIZES.length]);
+  }
+
+  private static String sku(int i) {
+    return String.valueOf(100_000_000 + i);
+  }
+}
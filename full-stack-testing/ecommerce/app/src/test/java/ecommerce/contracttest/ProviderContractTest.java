@@ -0,0 +1,30 @@
+package ecommerce.contracttest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Spring configuration shared by the Pact provider tests. Spring caches
+ * contexts by their configuration, so a contractTest run starts one server
+ * per web stack rather than one per class: the servlet classes, which carry
+ * only this annotation, share one, and classes that also switch to the
+ * reactive stack (spring.main.web-application-type=reactive) share a second,
+ * Netty-based one. @Provider and @PactFolder stay on the classes, where Pact
+ * looks them up.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Tag("contract")
+public @interface ProviderContractTest {
+}
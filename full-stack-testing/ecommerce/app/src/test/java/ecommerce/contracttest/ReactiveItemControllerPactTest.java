@@ -0,0 +1,35 @@
+package ecommerce.contracttest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import au.com.dius.pact.provider.junit5.HttpTestTarget;
+import au.com.dius.pact.provider.junit5.PactVerificationContext;
+import au.com.dius.pact.provider.junit5.PactVerificationInvocationContextProvider;
+import au.com.dius.pact.provider.junitsupport.Provider;
+import au.com.dius.pact.provider.junitsupport.loader.PactFolder;
+
+// Verifies the same contract against the reactive API on Netty
+@ProviderContractTest
+@Provider("ItemService")
+@PactFolder("pacts") // Location of pact files from consumer
+@TestPropertySource(properties = "spring.main.web-application-type=reactive")
+public class ReactiveItemControllerPactTest {
+
+  @LocalServerPort
+  private int port;
+
+  @BeforeEach
+  void setup(PactVerificationContext context) {
+    context.setTarget(new HttpTestTarget("localhost", port));
+  }
+
+  @TestTemplate
+  @ExtendWith(PactVerificationInvocationContextProvider.class)
+  void pactVerificationTestTemplate(PactVerificationContext context) {
+    context.verifyInteraction();
+  }
+}
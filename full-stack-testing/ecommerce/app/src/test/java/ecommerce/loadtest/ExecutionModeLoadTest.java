@@ -0,0 +1,141 @@
+package ecommerce.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import ecommerce.App;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the platform-thread Tomcat pool with virtual-thread request
+ * execution. Every simulated connection runs on its own virtual thread on the
+ * client side and issues sequential POST /items requests, so the server, not
+ * the driver, is the bottleneck. Persistence is on, so each request blocks
+ * until the journal's group commit has forced its item to disk: the blocking
+ * the execution modes differ on, which GET /items, served from the encoded
+ * catalog snapshot, never does. Run with {@code ./gradlew benchmarkTest};
+ * 10k connections need a matching open-file limit ({@code ulimit -n}).
+ */
+@Tag("benchmark")
+public class ExecutionModeLoadTest {
+
+  private static final int REQUESTS_PER_CONNECTION = 20;
+
+  // Fresh journal directory for every invocation
+  @TempDir
+  Path directory;
+
+  // Keeps SKUs unique across the warm-up and measured drives
+  private int drives;
+
+  @ParameterizedTest(name = "virtual threads={0}, connections={1}")
+  @CsvSource({
+      "false, 1000",
+      "true, 1000",
+      "false, 10000",
+      "true, 10000"
+  })
+  void compareExecutionModes(boolean virtualThreads, int connections) throws Exception {
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(App.class)
+        .properties(
+            "server.port=0",
+            "spring.threads.virtual.enabled=" + virtualThreads,
+            "ecommerce.persistence.enabled=true",
+            "ecommerce.persistence.directory=" + directory,
+            "logging.level.root=WARN")
+        .run()) {
+      int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+      // Warm up JIT and connection handling before measuring
+      drive(port, 100);
+      LoadResult result = drive(port, connections);
+
+      System.out.printf("%s threads, %5d connections: %8.0f req/s, p50 %6.2f ms, p99 %7.2f ms, max %7.2f ms%n",
+          virtualThreads ? "virtual " : "platform", connections, result.throughput(),
+          result.percentileMillis(0.50), result.percentileMillis(0.99), result.percentileMillis(1.0));
+      assertEquals(0, result.errors());
+    }
+  }
+
+  private LoadResult drive(int port, int connections) throws InterruptedException {
+    HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(30))
+        .build();
+    URI items = URI.create("http://localhost:" + port + "/items");
+    long skuBase = 100_000_000L * ++drives;
+
+    long[] latencies = new long[connections * REQUESTS_PER_CONNECTION];
+    AtomicInteger errors = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(connections);
+
+    long began;
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int c = 0; c < connections; c++) {
+        final int offset = c * REQUESTS_PER_CONNECTION;
+        clients.execute(() -> {
+          try {
+            start.await();
+            for (int r = 0; r < REQUESTS_PER_CONNECTION; r++) {
+              String item = "{\"sku\":\"" + (skuBase + offset + r) + "\",\"color\":\"Black\",\"size\":\"M\"}";
+              HttpRequest request = HttpRequest.newBuilder(items)
+                  .timeout(Duration.ofSeconds(60))
+                  .header("Content-Type", "application/json")
+                  .POST(HttpRequest.BodyPublishers.ofString(item))
+                  .build();
+              long sent = System.nanoTime();
+              HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+              latencies[offset + r] = System.nanoTime() - sent;
+              if (response.statusCode() != 201) {
+                errors.incrementAndGet();
+              }
+            }
+          } catch (Exception e) {
+            errors.incrementAndGet();
+          } finally {
+            done.countDown();
+          }
+        });
+      }
+      began = System.nanoTime();
+      start.countDown();
+      done.await();
+    }
+    long elapsed = System.nanoTime() - began;
+    return new LoadResult(latencies, elapsed, errors.get());
+  }
+
+  private record LoadResult(long[] latencies, long elapsedNanos, int errors) {
+
+    LoadResult {
+      Arrays.sort(latencies);
+    }
+
+    double throughput() {
+      return latencies.length / (elapsedNanos / 1e9);
+    }
+
+    double percentileMillis(double percentile) {
+      int index = (int) Math.ceil(percentile * latencies.length) - 1;
+      return latencies[Math.max(0, index)] / 1e6;
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package ecommerce.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import ecommerce.model.Item;
+import ecommerce.repository.ItemRepository;
+import ecommerce.service.ItemService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DurableItemJournalFailureTest {
+
+  @TempDir
+  Path directory;
+
+  // Thrown by the next force() of the log, then cleared
+  private final AtomicReference<Throwable> failNextForce = new AtomicReference<>();
+
+  @Test
+  public void failedWrites_ShouldNotComeBackOnRestart() throws Exception {
+    ItemRepository repository = new ItemRepository();
+    DurableItemJournal journal = open(repository);
+    ItemService itemService = new ItemService(repository, journal, 1000, Duration.ofMinutes(5));
+    itemService.createItem(new Item("100000001", "Black", "S"));
+
+    failNextForce.set(new UncheckedIOException(new IOException("device error")));
+    assertThrows(UncheckedIOException.class, () -> itemService.createItem(new Item("100000002", "Black", "S")));
+    assertThrows(IllegalStateException.class, () -> journal.append(List.of(new Item("100000003", "Black", "S")),
+        items -> {
+          throw new IllegalStateException("not stored");
+        }));
+    // Another client takes the SKU whose write failed
+    itemService.createItem(new Item("100000002", "White", "M"));
+    journal.destroy();
+
+    ItemRepository recovered = new ItemRepository();
+    open(recovered).destroy();
+    assertEquals(2, recovered.size());
+    assertEquals("Black", recovered.findBySku("100000001").orElseThrow().getColor());
+    assertEquals("White", recovered.findBySku("100000002").orElseThrow().getColor());
+    assertTrue(recovered.findBySku("100000003").isEmpty());
+  }
+
+  @Test
+  public void committerError_ShouldFailWritesInsteadOfHanging() throws Exception {
+    DurableItemJournal journal = open(new ItemRepository());
+    failNextForce.set(new InternalError("fault on the mapped log"));
+
+    assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+      assertThrows(RuntimeException.class, () -> journal.append(List.of(new Item("100000001", "Black", "S"))));
+      assertThrows(IllegalStateException.class, () -> journal.append(List.of(new Item("100000002", "Black", "S"))));
+    });
+    journal.destroy();
+  }
+
+  private DurableItemJournal open(ItemRepository repository) throws IOException {
+    return new DurableItemJournal(repository, directory, DataSize.ofKilobytes(64), Duration.ofHours(1)) {
+      @Override
+      WriteAheadLog openLog(Path file) throws IOException {
+        return new WriteAheadLog(file, Math.toIntExact(DataSize.ofKilobytes(64).toBytes())) {
+          @Override
+          void force() {
+            Throwable failure = failNextForce.getAndSet(null);
+            if (failure instanceof RuntimeException runtime) {
+              throw runtime;
+            }
+            if (failure instanceof Error error) {
+              throw error;
+            }
+            super.force();
+          }
+        };
+      }
+    };
+  }
+}
@@ -0,0 +1,202 @@
+package producerconsumerex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded FIFO buffer that moves messages in batches and shuts down without
+ * sentinels.
+ *
+ * Producers hand over whole collections with putAll and consumers take up to
+ * n messages with retrieveUpTo, so the monitor is acquired and waiters are
+ * notified once per batch instead of once per message.
+ *
+ * Shutdown: once every producer has finished, the owner calls close(). From
+ * then on puts are rejected, consumers keep draining what is left, and
+ * retrieveUpTo returns an empty list when the buffer is closed and empty.
+ * Every consumer sees that end of stream, however many consumers there are.
+ * awaitDrained lets the owner wait, with a timeout, until consumers have
+ * taken everything.
+ */
+public class BoundedBuffer<E> {
+
+  // Circular array: head is the oldest message, count the number stored
+  private final Object[] messages;
+  private int head;
+  private int count;
+  private boolean closed;
+
+  public BoundedBuffer(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    messages = new Object[capacity];
+  }
+
+  public void put(E message) throws InterruptedException {
+    putAll(List.of(message));
+  }
+
+  /**
+   * Adds every message in order, waiting for room as needed. Messages are
+   * inserted as space frees up, so a batch larger than the capacity still
+   * goes through.
+   *
+   * @throws IllegalStateException if the buffer is closed; messages inserted
+   *                               before the close stay in the buffer
+   */
+  public synchronized void putAll(Collection<? extends E> batch) throws InterruptedException {
+    insertAll(batch, false, 0);
+  }
+
+  /**
+   * Like {@link #putAll(Collection)}, but gives up once the timeout elapses.
+   *
+   * @return how many messages, from the start of the batch, were added
+   */
+  public synchronized int putAll(Collection<? extends E> batch, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    return insertAll(batch, true, System.nanoTime() + unit.toNanos(timeout));
+  }
+
+  /**
+   * Takes up to {@code max} messages, waiting until at least one is
+   * available.
+   *
+   * @return the oldest messages, or an empty list once the buffer is closed
+   *         and drained
+   * @throws IllegalArgumentException if {@code max} is less than 1, since an
+   *                                  empty list would read as the end
+   */
+  public synchronized List<E> retrieveUpTo(int max) throws InterruptedException {
+    checkMax(max);
+    while (count == 0 && !closed) {
+      wait();
+    }
+    return remove(max);
+  }
+
+  /**
+   * Like {@link #retrieveUpTo(int)}, but returns an empty list when nothing
+   * arrives within the timeout. Use {@link #isDrained()} to tell a timeout
+   * from the end of the stream.
+   */
+  public synchronized List<E> retrieveUpTo(int max, long timeout, TimeUnit unit) throws InterruptedException {
+    checkMax(max);
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (count == 0 && !closed) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return List.of();
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    return remove(max);
+  }
+
+  /**
+   * Rejects further puts and wakes every waiting thread. Messages already
+   * in the buffer are still delivered.
+   */
+  public synchronized void close() {
+    closed = true;
+    notifyAll();
+  }
+
+  /**
+   * Waits until the buffer is closed and every message has been taken.
+   *
+   * @return false if that did not happen within the timeout
+   */
+  public synchronized boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (!isDrained()) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    return true;
+  }
+
+  public synchronized boolean isDrained() {
+    return closed && count == 0;
+  }
+
+  public synchronized int size() {
+    return count;
+  }
+
+  public int capacity() {
+    return messages.length;
+  }
+
+  private static void checkMax(int max) {
+    if (max < 1) {
+      throw new IllegalArgumentException("max must be positive: " + max);
+    }
+  }
+
+  // Caller holds the monitor
+  private int insertAll(Collection<? extends E> batch, boolean timed, long deadline)
+      throws InterruptedException {
+    int inserted = 0;
+    // Inserted since consumers were last notified
+    int unannounced = 0;
+    try {
+      for (E message : batch) {
+        if (message == null) {
+          throw new NullPointerException();
+        }
+        while (count == messages.length && !closed) {
+          if (unannounced > 0) {
+            // Let consumers at what is already in before waiting for room
+            notifyAll();
+            unannounced = 0;
+          }
+          if (!timed) {
+            wait();
+          } else {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+              return inserted;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+          }
+        }
+        if (closed) {
+          throw new IllegalStateException("buffer closed");
+        }
+        messages[(head + count) % messages.length] = message;
+        count++;
+        inserted++;
+        unannounced++;
+      }
+      return inserted;
+    } finally {
+      if (unannounced > 0) {
+        notifyAll();
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<E> remove(int max) {
+    int n = Math.min(max, count);
+    List<E> batch = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      batch.add((E) messages[head]);
+      messages[head] = null;
+      head = (head + 1) % messages.length;
+    }
+    count -= n;
+    if (n > 0) {
+      // Wakes producers waiting for room, and awaitDrained once empty
+      notifyAll();
+    }
+    return batch;
+  }
+}
@@ -0,0 +1,217 @@
+package producerconsumerex;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Moves the same number of messages through Buffer, ArrayBlockingQueue,
+ * BoundedBuffer (batched takes) and RingBuffer (each wait strategy, one
+ * element at a time and drained in batches) with several producers and
+ * consumers.
+ *
+ * Usage: BufferBenchmark [producers] [consumers] [messages] [capacity]
+ */
+public class BufferBenchmark {
+
+  // Told apart from real messages by identity
+  private static final String POISON = new String("POISON");
+  private static final int DRAIN_BATCH = 64;
+  private static final int ROUNDS = 3;
+
+  interface Channel {
+    void put(String message) throws InterruptedException;
+
+    String take() throws InterruptedException;
+
+    // Takes at least one message, more when they are already there
+    default int takeBatch(List<String> batch) throws InterruptedException {
+      batch.add(take());
+      return 1;
+    }
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int producers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+    int consumers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+    int messages = args.length > 2 ? Integer.parseInt(args[2]) : 2_000_000;
+    int capacity = args.length > 3 ? Integer.parseInt(args[3]) : 1024;
+
+    System.out.printf("%d producers, %d consumers, %d messages, capacity %d%n",
+        producers, consumers, messages, capacity);
+    PrintStream console = System.out;
+    // Buffer logs every wait; keep console output out of the measurement
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    try {
+      report(console, "Buffer (single slot)", producers, consumers, messages, () -> {
+        Buffer buffer = new Buffer();
+        return channel(buffer::put, buffer::retrieve);
+      });
+      report(console, "ArrayBlockingQueue", producers, consumers, messages, () -> {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(capacity);
+        return channel(queue::put, queue::take);
+      });
+      report(console, "BoundedBuffer retrieveUpTo", producers, consumers, messages, () -> {
+        BoundedBuffer<String> buffer = new BoundedBuffer<>(capacity);
+        return new Channel() {
+          public void put(String message) throws InterruptedException {
+            buffer.put(message);
+          }
+
+          public String take() throws InterruptedException {
+            return buffer.retrieveUpTo(1).get(0);
+          }
+
+          public int takeBatch(List<String> batch) throws InterruptedException {
+            List<String> taken = buffer.retrieveUpTo(DRAIN_BATCH);
+            batch.addAll(taken);
+            return taken.size();
+          }
+        };
+      });
+      for (WaitStrategy strategy : WaitStrategy.values()) {
+        report(console, "RingBuffer " + strategy, producers, consumers, messages, () -> {
+          RingBuffer<String> ring = new RingBuffer<>(capacity, strategy);
+          return channel(ring::put, ring::take);
+        });
+        report(console, "RingBuffer " + strategy + " drainTo", producers, consumers, messages, () -> {
+          RingBuffer<String> ring = new RingBuffer<>(capacity, strategy);
+          return new Channel() {
+            public void put(String message) throws InterruptedException {
+              ring.put(message);
+            }
+
+            public String take() throws InterruptedException {
+              return ring.take();
+            }
+
+            public int takeBatch(List<String> batch) throws InterruptedException {
+              int drained = ring.drainTo(batch, DRAIN_BATCH);
+              if (drained > 0) {
+                return drained;
+              }
+              batch.add(ring.take());
+              return 1;
+            }
+          };
+        });
+      }
+    } finally {
+      System.setOut(console);
+    }
+  }
+
+  interface Put {
+    void put(String message) throws InterruptedException;
+  }
+
+  interface Take {
+    String take() throws InterruptedException;
+  }
+
+  private static Channel channel(Put put, Take take) {
+    return new Channel() {
+      public void put(String message) throws InterruptedException {
+        put.put(message);
+      }
+
+      public String take() throws InterruptedException {
+        return take.take();
+      }
+    };
+  }
+
+  interface ChannelFactory {
+    Channel create();
+  }
+
+  private static void report(PrintStream console, String label, int producers, int consumers, int messages,
+      ChannelFactory factory) throws InterruptedException {
+    double best = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      best = Math.max(best, run(factory.create(), producers, consumers, messages));
+    }
+    console.printf("%-28s %,12.0f msgs/s%n", label, best);
+  }
+
+  // Messages per second from the first put to the last take
+  private static double run(Channel channel, int producers, int consumers, int messages)
+      throws InterruptedException {
+    String[] payload = new String[1024];
+    for (int i = 0; i < payload.length; i++) {
+      payload[i] = "message " + i;
+    }
+    long[] received = new long[consumers];
+    List<Thread> producerThreads = new ArrayList<>();
+    List<Thread> consumerThreads = new ArrayList<>();
+
+    for (int c = 0; c < consumers; c++) {
+      final int id = c;
+      consumerThreads.add(new Thread(() -> {
+        List<String> batch = new ArrayList<>(DRAIN_BATCH);
+        try {
+          while (true) {
+            channel.takeBatch(batch);
+            int pills = 0;
+            for (String message : batch) {
+              if (message == POISON) {
+                pills++;
+              } else {
+                received[id]++;
+              }
+            }
+            batch.clear();
+            if (pills > 0) {
+              // A drained batch may hold other consumers' pills, pass them on
+              for (int i = 1; i < pills; i++) {
+                channel.put(POISON);
+              }
+              return;
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }));
+    }
+    for (int p = 0; p < producers; p++) {
+      final int share = messages / producers + (p < messages % producers ? 1 : 0);
+      producerThreads.add(new Thread(() -> {
+        try {
+          for (int i = 0; i < share; i++) {
+            channel.put(payload[i & (payload.length - 1)]);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }));
+    }
+
+    long started = System.nanoTime();
+    consumerThreads.forEach(Thread::start);
+    producerThreads.forEach(Thread::start);
+    for (Thread producer : producerThreads) {
+      producer.join();
+    }
+    // Pills follow every message, one per consumer
+    for (int c = 0; c < consumers; c++) {
+      channel.put(POISON);
+    }
+    for (Thread consumer : consumerThreads) {
+      consumer.join();
+    }
+    long elapsed = System.nanoTime() - started;
+
+    long total = 0;
+    for (long count : received) {
+      total += count;
+    }
+    if (total != messages) {
+      throw new IllegalStateException("lost messages: " + total + " of " + messages);
+    }
+    return messages / (elapsed / 1e9);
+  }
+}
@@ -0,0 +1,161 @@
+package producerconsumerex;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed consumers on the shared buffer against ForkJoinConsumers, with a
+ * skewed workload: most messages are cheap, a few cost a hundred times
+ * more, all of it busy CPU work. It reports per-message latency (from the
+ * producer's put to the end of processing) at p50/p99/p99.9/max, and CPU
+ * utilization as process CPU time over wall time times consumer count.
+ *
+ * The producer is paced to a fixed share of what the consumers can process,
+ * so latency reflects how work is spread rather than a queue that only
+ * ever grows.
+ *
+ * Usage: ConsumerModeBenchmark [consumers] [messages] [batch] [slow-percent] [load-percent]
+ */
+public class ConsumerModeBenchmark {
+
+  private static final long CHEAP_NANOS = 10_000;
+  private static final long SLOW_NANOS = 1_000_000;
+  private static final int CAPACITY = 1024;
+  // A run that takes longer is stuck, and its numbers would be meaningless
+  private static final long AWAIT_MINUTES = 10;
+
+  // The message: when it was produced and how long it takes to process
+  record Job(int id, long createdNanos, long costNanos) {
+  }
+
+  interface Mode {
+    void start(BoundedBuffer<Job> buffer, int consumers, int batchSize, long[] latencies);
+
+    void await() throws InterruptedException;
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int consumers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+    int messages = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+    int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+    int slowPercent = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+    int loadPercent = args.length > 4 ? Integer.parseInt(args[4]) : 70;
+
+    // Mean cost per message, spread over the consumers that can run at once
+    double meanCost = (slowPercent * SLOW_NANOS + (100 - slowPercent) * CHEAP_NANOS) / 100.0;
+    int parallel = Math.min(consumers, Runtime.getRuntime().availableProcessors());
+    long intervalNanos = (long) (meanCost / parallel / (loadPercent / 100.0));
+
+    System.out.printf("%d consumers, %d messages, batch %d, %d%% cost %d us, the rest %d us, %d%% load, %d cores%n",
+        consumers, messages, batchSize, slowPercent, SLOW_NANOS / 1000, CHEAP_NANOS / 1000, loadPercent,
+        Runtime.getRuntime().availableProcessors());
+    for (int round = 0; round < 2; round++) {
+      // The first round is warm-up
+      boolean report = round == 1;
+      run("shared buffer", sharedBuffer(), consumers, messages, batchSize, slowPercent, intervalNanos, report);
+      run("work stealing", forkJoin(), consumers, messages, batchSize, slowPercent, intervalNanos, report);
+    }
+  }
+
+  private static Mode sharedBuffer() {
+    return new Mode() {
+      final List<Thread> threads = new ArrayList<>();
+
+      public void start(BoundedBuffer<Job> buffer, int consumers, int batchSize, long[] latencies) {
+        for (int c = 0; c < consumers; c++) {
+          Thread consumer = new Thread(() -> {
+            try {
+              for (List<Job> batch = buffer.retrieveUpTo(batchSize); !batch.isEmpty();
+                  batch = buffer.retrieveUpTo(batchSize)) {
+                batch.forEach(job -> process(job, latencies));
+              }
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+          threads.add(consumer);
+          consumer.start();
+        }
+      }
+
+      public void await() throws InterruptedException {
+        for (Thread consumer : threads) {
+          consumer.join();
+        }
+      }
+    };
+  }
+
+  private static Mode forkJoin() {
+    return new Mode() {
+      ForkJoinConsumers<Job> consumers;
+
+      public void start(BoundedBuffer<Job> buffer, int parallelism, int batchSize, long[] latencies) {
+        consumers = new ForkJoinConsumers<>(buffer, parallelism, batchSize, job -> process(job, latencies));
+        consumers.start();
+      }
+
+      public void await() throws InterruptedException {
+        if (!consumers.awaitTermination(AWAIT_MINUTES, TimeUnit.MINUTES)) {
+          consumers.shutdownNow();
+          throw new IllegalStateException("Work-stealing consumers did not finish within " + AWAIT_MINUTES
+              + " minutes");
+        }
+        if (consumers.getFailed() > 0) {
+          throw new IllegalStateException(consumers.getFailed() + " messages failed", consumers.getFirstFailure());
+        }
+      }
+    };
+  }
+
+  private static void run(String label, Mode mode, int consumers, int messages, int batchSize, int slowPercent,
+      long intervalNanos, boolean report) throws InterruptedException {
+    BoundedBuffer<Job> buffer = new BoundedBuffer<>(CAPACITY);
+    long[] latencies = new long[messages];
+    com.sun.management.OperatingSystemMXBean os =
+        (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    long cpuBefore = os.getProcessCpuTime();
+    long started = System.nanoTime();
+    mode.start(buffer, consumers, batchSize, latencies);
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < messages; i++) {
+      long due = started + i * intervalNanos;
+      for (long now = System.nanoTime(); now < due; now = System.nanoTime()) {
+        LockSupport.parkNanos(due - now);
+      }
+      long cost = random.nextInt(100) < slowPercent ? SLOW_NANOS : CHEAP_NANOS;
+      buffer.put(new Job(i, System.nanoTime(), cost));
+    }
+    buffer.close();
+    mode.await();
+    long wall = System.nanoTime() - started;
+    long cpu = os.getProcessCpuTime() - cpuBefore;
+    if (!report) {
+      return;
+    }
+
+    Arrays.sort(latencies);
+    System.out.printf("%-14s %8.1f ms wall  p50 %7.2f  p99 %7.2f  p99.9 %7.2f  max %7.2f ms  cpu %5.1f%%%n",
+        label, wall / 1e6, percentile(latencies, 0.50), percentile(latencies, 0.99),
+        percentile(latencies, 0.999), latencies[latencies.length - 1] / 1e6,
+        100.0 * cpu / ((double) wall * Math.min(consumers, Runtime.getRuntime().availableProcessors())));
+  }
+
+  private static void process(Job job, long[] latencies) {
+    long end = System.nanoTime() + job.costNanos();
+    while (System.nanoTime() < end) {
+      Thread.onSpinWait();
+    }
+    latencies[job.id()] = System.nanoTime() - job.createdNanos();
+  }
+
+  private static double percentile(long[] sorted, double p) {
+    return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+  }
+}
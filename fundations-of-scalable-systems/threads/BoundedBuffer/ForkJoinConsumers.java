@@ -0,0 +1,155 @@
+package producerconsumerex;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Consumes a {@link BoundedBuffer} with a work-stealing pool instead of
+ * fixed consumer threads.
+ *
+ * A dispatcher thread takes batches from the buffer and submits each one as
+ * a task that splits itself in halves down to single messages. Each worker
+ * pushes the halves it forks onto its own deque, and idle workers steal
+ * from the other end of busy workers' deques. A batch that happens to
+ * contain a slow message therefore no longer holds up the cheap messages
+ * behind it: other workers steal them, where a fixed consumer would process
+ * its whole batch in order while the rest sit idle.
+ *
+ * At most {@code 2 * parallelism} batches are in flight, so a slow pool
+ * pushes back on the buffer, and through it on the producers.
+ *
+ * A message whose handler throws is counted as failed, like in a pipeline
+ * Stage, and the rest of its batch is still handled. The first failure is
+ * kept for {@link #getFirstFailure()}; the pool would otherwise drop it
+ * silently with the task.
+ */
+public class ForkJoinConsumers<E> {
+
+  private final BoundedBuffer<E> source;
+  private final int batchSize;
+  private final Consumer<? super E> handler;
+  private final ForkJoinPool pool;
+  private final Semaphore inFlight;
+  private final Thread dispatcher;
+  private final LongAdder failed = new LongAdder();
+  private final AtomicReference<RuntimeException> firstFailure = new AtomicReference<>();
+
+  public ForkJoinConsumers(BoundedBuffer<E> source, int parallelism, int batchSize, Consumer<? super E> handler) {
+    if (parallelism < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("parallelism and batchSize must be positive");
+    }
+    this.source = source;
+    this.batchSize = batchSize;
+    this.handler = handler;
+    // asyncMode: local tasks run FIFO, which suits event-style messages
+    this.pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    this.inFlight = new Semaphore(2 * parallelism);
+    this.dispatcher = new Thread(this::dispatch, "fork-join-dispatcher");
+  }
+
+  public void start() {
+    dispatcher.start();
+  }
+
+  private void dispatch() {
+    try {
+      // An empty batch means the buffer was closed and fully drained
+      for (List<E> batch = source.retrieveUpTo(batchSize); !batch.isEmpty(); batch = source.retrieveUpTo(batchSize)) {
+        inFlight.acquire();
+        pool.execute(new Split(batch, 0, batch.size(), true));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private final class Split extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<E> batch;
+    private final int from;
+    private final int to;
+    // The whole batch, as submitted by the dispatcher, rather than a half
+    private final boolean root;
+
+    Split(List<E> batch, int from, int to, boolean root) {
+      this.batch = batch;
+      this.from = from;
+      this.to = to;
+      this.root = root;
+    }
+
+    @Override
+    protected void compute() {
+      try {
+        if (to - from == 1) {
+          handle(batch.get(from));
+        } else {
+          int middle = (from + to) >>> 1;
+          // Runs one half here and leaves the other on this worker's deque
+          // for anyone idle to steal
+          invokeAll(new Split(batch, from, middle, false), new Split(batch, middle, to, false));
+        }
+      } finally {
+        if (root) {
+          inFlight.release();
+        }
+      }
+    }
+  }
+
+  private void handle(E message) {
+    try {
+      handler.accept(message);
+    } catch (RuntimeException e) {
+      failed.increment();
+      firstFailure.compareAndSet(null, e);
+    }
+  }
+
+  public long getFailed() {
+    return failed.sum();
+  }
+
+  /** The first exception a handler threw, or null if none did. */
+  public RuntimeException getFirstFailure() {
+    return firstFailure.get();
+  }
+
+  /**
+   * Waits until the buffer is drained and every message handled.
+   *
+   * @return false if that did not happen within the timeout
+   */
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    TimeUnit.NANOSECONDS.timedJoin(dispatcher, deadline - System.nanoTime());
+    if (dispatcher.isAlive()) {
+      return false;
+    }
+    pool.shutdown();
+    return pool.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+  }
+
+  public void shutdownNow() {
+    dispatcher.interrupt();
+    pool.shutdownNow();
+  }
+
+  /**
+   * Tasks sitting in worker deques, how many were stolen so far and how
+   * many messages failed, with the first failure if any.
+   */
+  public String report() {
+    String report = String.format("fork-join  workers=%-3d batch=%-4d queued=%-6d steals=%-8d failed=%d",
+        pool.getParallelism(), batchSize, pool.getQueuedTaskCount(), pool.getStealCount(), getFailed());
+    RuntimeException failure = getFirstFailure();
+    return failure == null ? report : report + System.lineSeparator() + "first failure: " + failure;
+  }
+}
@@ -0,0 +1,179 @@
+package producerconsumerex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Chain of {@link Stage}s connected by bounded buffers, for example
+ * parse -> enrich -> write. Messages enter through {@link #input()} (or
+ * submit), which blocks when the first stage is full. Because every stage
+ * blocks on the next one, the slowest stage sets the pace of the whole
+ * pipeline and no buffer grows past its capacity.
+ *
+ * <pre>
+ * Pipeline&lt;String&gt; pipeline = Pipeline.&lt;String&gt;builder()
+ *     .stage("parse", 64, 2, 16, Integer::parseInt)
+ *     .sink("write", 64, 1, 16, System.out::println)
+ *     .start();
+ * pipeline.submitAll(lines);
+ * pipeline.close();
+ * pipeline.awaitTermination(10, TimeUnit.SECONDS);
+ * </pre>
+ *
+ * @param <I> type of the messages fed into the first stage
+ */
+public class Pipeline<I> {
+
+  private final List<Stage<?, ?>> stages;
+
+  private Pipeline(List<Stage<?, ?>> stages) {
+    this.stages = Collections.unmodifiableList(stages);
+  }
+
+  public static <I> Builder<I, I> builder() {
+    return new Builder<>(new ArrayList<>());
+  }
+
+  /**
+   * The first stage's buffer. Producers may put into it directly; closing it
+   * shuts the pipeline down once everything in flight has been processed.
+   */
+  @SuppressWarnings("unchecked")
+  public BoundedBuffer<I> input() {
+    return (BoundedBuffer<I>) stages.get(0).input();
+  }
+
+  public void submit(I message) throws InterruptedException {
+    input().put(message);
+  }
+
+  public void submitAll(Collection<? extends I> messages) throws InterruptedException {
+    input().putAll(messages);
+  }
+
+  /**
+   * Stops accepting input. Stages finish what they hold and close the next
+   * one in turn.
+   */
+  public void close() {
+    input().close();
+  }
+
+  /**
+   * Waits for every worker of every stage to finish.
+   *
+   * @return false if some were still running when the timeout elapsed
+   */
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (Stage<?, ?> stage : stages) {
+      for (Thread thread : stage.threads()) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedJoin(thread, remaining);
+        if (thread.isAlive()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Interrupts every worker, dropping whatever is still buffered.
+   */
+  public void shutdownNow() {
+    close();
+    for (Stage<?, ?> stage : stages) {
+      stage.threads().forEach(Thread::interrupt);
+    }
+  }
+
+  public List<Stage<?, ?>> stages() {
+    return stages;
+  }
+
+  /**
+   * One line per stage: queue depth, processed and failed counts, and
+   * throughput.
+   */
+  public String report() {
+    StringBuilder report = new StringBuilder();
+    for (Stage<?, ?> stage : stages) {
+      report.append(stage).append(System.lineSeparator());
+    }
+    return report.toString();
+  }
+
+  /**
+   * Stages are described front to back. Each one is created with the
+   * buffer of the stage after it, so the builder holds the functions and
+   * wires the buffers up in {@link #start()}.
+   *
+   * @param <I> input type of the pipeline
+   * @param <T> output type of the last stage added so far
+   */
+  public static class Builder<I, T> {
+
+    private final List<StageSpec> specs;
+
+    private Builder(List<StageSpec> specs) {
+      this.specs = specs;
+    }
+
+    /**
+     * Adds a stage that maps each message; a null result drops it.
+     *
+     * @param capacity  size of the stage's input buffer
+     * @param workers   threads taking from that buffer
+     * @param batchSize messages taken per handoff
+     */
+    public <R> Builder<I, R> stage(String name, int capacity, int workers, int batchSize,
+        Function<? super T, ? extends R> function) {
+      specs.add(new StageSpec(name, capacity, workers, batchSize, function));
+      return new Builder<>(specs);
+    }
+
+    /**
+     * Adds a final stage that consumes each message.
+     */
+    public Builder<I, Void> sink(String name, int capacity, int workers, int batchSize,
+        Consumer<? super T> consumer) {
+      return stage(name, capacity, workers, batchSize, message -> {
+        consumer.accept(message);
+        return null;
+      });
+    }
+
+    /**
+     * Creates the stages and starts their workers.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Pipeline<I> start() {
+      if (specs.isEmpty()) {
+        throw new IllegalStateException("a pipeline needs at least one stage");
+      }
+      List<Stage<?, ?>> stages = new ArrayList<>(Collections.nCopies(specs.size(), null));
+      BoundedBuffer next = null;
+      for (int i = specs.size() - 1; i >= 0; i--) {
+        StageSpec spec = specs.get(i);
+        Stage stage = new Stage(spec.name(), spec.capacity(), spec.workers(), spec.batchSize(), spec.function(),
+            next);
+        stages.set(i, stage);
+        next = stage.input();
+      }
+      stages.forEach(Stage::start);
+      return new Pipeline<>(stages);
+    }
+  }
+
+  private record StageSpec(String name, int capacity, int workers, int batchSize, Function<?, ?> function) {
+  }
+}
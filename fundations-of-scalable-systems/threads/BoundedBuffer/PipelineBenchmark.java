@@ -0,0 +1,82 @@
+package producerconsumerex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput of a two-stage pipeline as workers per stage grow. Each
+ * message costs a fixed amount of work in each stage: blocking (a sleep,
+ * standing in for I/O) by default, or busy CPU with "cpu" as the mode.
+ * Blocking work scales with workers even on a single core; CPU work only
+ * scales up to the number of cores.
+ *
+ * Usage: PipelineBenchmark [io|cpu] [messages] [work-micros] [max-workers]
+ */
+public class PipelineBenchmark {
+
+  private static final int CAPACITY = 1024;
+  private static final int BATCH_SIZE = 32;
+  private static final int PRODUCER_BATCH = 256;
+  // A run that takes longer is stuck, and its numbers would be meaningless
+  private static final long AWAIT_MINUTES = 10;
+
+  public static void main(String[] args) throws InterruptedException {
+    boolean cpu = args.length > 0 && args[0].equals("cpu");
+    int messages = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+    long workNanos = TimeUnit.MICROSECONDS.toNanos(args.length > 2 ? Long.parseLong(args[2]) : 50);
+    int maxWorkers = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+
+    System.out.printf("%s work, %d messages, %d us per message per stage, %d cores%n",
+        cpu ? "cpu" : "io", messages, TimeUnit.NANOSECONDS.toMicros(workNanos),
+        Runtime.getRuntime().availableProcessors());
+    for (int workers = 1; workers <= maxWorkers; workers *= 2) {
+      run(messages, workers, cpu, workNanos);
+    }
+  }
+
+  private static void run(int messages, int workers, boolean cpu, long workNanos) throws InterruptedException {
+    Pipeline<Integer> pipeline = Pipeline.<Integer>builder()
+        .stage("parse", CAPACITY, workers, BATCH_SIZE, message -> work(message, cpu, workNanos))
+        .sink("write", CAPACITY, workers, BATCH_SIZE, message -> work(message, cpu, workNanos))
+        .start();
+
+    long started = System.nanoTime();
+    List<Integer> batch = new ArrayList<>(PRODUCER_BATCH);
+    for (int i = 0; i < messages; i++) {
+      batch.add(i);
+      if (batch.size() == PRODUCER_BATCH) {
+        pipeline.submitAll(batch);
+        batch.clear();
+      }
+    }
+    pipeline.submitAll(batch);
+    pipeline.close();
+    if (!pipeline.awaitTermination(AWAIT_MINUTES, TimeUnit.MINUTES)) {
+      pipeline.shutdownNow();
+      throw new IllegalStateException("Pipeline did not finish within " + AWAIT_MINUTES + " minutes");
+    }
+    double seconds = (System.nanoTime() - started) / 1e9;
+    for (Stage<?, ?> stage : pipeline.stages()) {
+      if (stage.getFailed() > 0) {
+        throw new IllegalStateException(stage.getFailed() + " messages failed in stage " + stage.getName());
+      }
+    }
+
+    System.out.printf("%3d workers/stage: %,10.0f msgs/s end to end%n", workers, messages / seconds);
+    System.out.print(pipeline.report());
+  }
+
+  private static Integer work(Integer message, boolean cpu, long nanos) {
+    if (cpu) {
+      long end = System.nanoTime() + nanos;
+      while (System.nanoTime() < end) {
+        Thread.onSpinWait();
+      }
+    } else {
+      LockSupport.parkNanos(nanos);
+    }
+    return message;
+  }
+}
@@ -1,30 +1,27 @@
 package producerconsumerex;
 
-import java.util.Random;
+import java.util.List;
 
 public class Producer implements Runnable {
-  private Buffer buffer;
+  private BoundedBuffer<String> buffer;
 
-  public Producer(Buffer drop) {
+  public Producer(BoundedBuffer<String> drop) {
     this.buffer = drop;
   }
 
   public void run() {
-    String importantInfo[] = {
+    List<String> importantInfo = List.of(
         "Mares eat oats",
         "Does eat oats",
         "Little lambs eat ivy",
-        "A kid will eat ivy too"
-    };
-    Random random = new Random();
+        "A kid will eat ivy too");
 
-    for (int i = 0; i < importantInfo.length; i++) {
-      buffer.put(importantInfo[i]);
-      try {
-        Thread.sleep(random.nextInt(1000));
-      } catch (InterruptedException e) {
-      }
+    // One handoff for the whole batch; the owner closes the buffer once
+    // every producer is done, so no end marker is sent.
+    try {
+      buffer.putAll(importantInfo);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
     }
-    buffer.put("DONE");
   }
 }
@@ -1,17 +1,74 @@
 package producerconsumerex;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import diagnostics.AsyncLogger;
+import diagnostics.ContentionSampler;
+import diagnostics.DeadlockWatchdog;
+
 /**
  *
  * @author igorton
  */
 public class ProducerConsumerEx {
 
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+  // Usage: ProducerConsumerEx [pipeline|forkjoin]
   public static void main(String[] args) throws InterruptedException {
-    Buffer drop = new Buffer();
-    (new Thread(new Consumer(drop))).start();
-    (new Thread(new Consumer(drop))).start();
-    Thread.sleep(5000);
-    (new Thread(new Producer(drop))).start();
-    (new Thread(new Producer(drop))).start();
+    DeadlockWatchdog.exitOnDeadlock();
+    ContentionSampler sampler = new ContentionSampler(10, TimeUnit.MILLISECONDS);
+    AsyncLogger log = new AsyncLogger(System.out, 1024);
+    if (args.length > 0 && args[0].equals("forkjoin")) {
+      forkJoin(log);
+    } else {
+      pipeline(log);
+    }
+    System.out.println(sampler.report(5));
+    sampler.close();
+  }
+
+  // Two stages: count the words of each message, then print them
+  private static void pipeline(AsyncLogger log) throws InterruptedException {
+    Pipeline<String> pipeline = Pipeline.<String>builder()
+        .stage("count", 4, 2, 2, message -> message + " (" + message.split(" ").length + " words)")
+        .sink("print", 4, 2, 2, message -> log.log("MESSAGE RECEIVED: %s", message))
+        .start();
+
+    runProducers(pipeline.input());
+    if (!pipeline.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+      System.out.println("Pipeline did not drain in time, stopping it");
+      pipeline.shutdownNow();
+    }
+    // Flush the messages before the reports
+    log.close();
+    System.out.print(pipeline.report());
+  }
+
+  // Consumers pull from work-stealing deques instead of fixed threads
+  private static void forkJoin(AsyncLogger log) throws InterruptedException {
+    BoundedBuffer<String> drop = new BoundedBuffer<>(4);
+    ForkJoinConsumers<String> consumers = new ForkJoinConsumers<>(drop, 2, 2,
+        message -> log.log("MESSAGE RECEIVED: %s", message));
+    consumers.start();
+
+    runProducers(drop);
+    if (!consumers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+      System.out.println("Consumers did not drain in time, stopping them");
+      consumers.shutdownNow();
+    }
+    log.close();
+    System.out.println(consumers.report());
+  }
+
+  // Close only after the last producer, then let consumers drain the rest
+  private static void runProducers(BoundedBuffer<String> drop) throws InterruptedException {
+    List<Thread> producers = List.of(new Thread(new Producer(drop)), new Thread(new Producer(drop)));
+    producers.forEach(Thread::start);
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    drop.close();
   }
 }
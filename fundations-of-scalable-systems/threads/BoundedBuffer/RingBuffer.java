@@ -0,0 +1,170 @@
+package producerconsumerex;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer/multi-consumer queue without locks.
+ *
+ * Each slot carries a sequence number telling whose turn it is. A producer
+ * claims position p by advancing the tail with a CAS once the slot's
+ * sequence equals p, stores the element, and publishes it by setting the
+ * sequence to p + 1. A consumer claims position p once the sequence reads
+ * p + 1, takes the element, and hands the slot to the next lap by setting
+ * it to p + capacity. Producers and consumers only contend on their own
+ * cursor, and nobody is ever woken up: threads that find the buffer full or
+ * empty wait according to the {@link WaitStrategy}.
+ */
+public class RingBuffer<E> {
+
+  private final Object[] elements;
+  private final AtomicLongArray sequences;
+  private final int mask;
+  private final WaitStrategy waitStrategy;
+
+  // Next position to fill, and next position to take
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong head = new AtomicLong();
+
+  /**
+   * @param capacity rounded up to the next power of two, and to at least 2:
+   *     with a single slot its published sequence (p + 1) would equal the
+   *     next producer position, so a second offer would overwrite an
+   *     unconsumed element and poll would spin forever
+   */
+  public RingBuffer(int capacity, WaitStrategy waitStrategy) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+    }
+    int size = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+    this.elements = new Object[size];
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+    this.mask = size - 1;
+    this.waitStrategy = waitStrategy;
+  }
+
+  /**
+   * Adds the element if there is room.
+   *
+   * @return false if the buffer is full
+   */
+  public boolean offer(E element) {
+    if (element == null) {
+      throw new NullPointerException();
+    }
+    long position = tail.get();
+    while (true) {
+      int index = (int) position & mask;
+      long difference = sequences.getAcquire(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements[index] = element;
+          sequences.setRelease(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (difference < 0) {
+        // The slot still holds the element from the previous lap
+        return false;
+      } else {
+        // Another producer took this position, retry from the new tail
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Removes the oldest element.
+   *
+   * @return null if the buffer is empty
+   */
+  @SuppressWarnings("unchecked")
+  public E poll() {
+    long position = head.get();
+    while (true) {
+      int index = (int) position & mask;
+      long difference = sequences.getAcquire(index) - (position + 1);
+      if (difference == 0) {
+        if (head.compareAndSet(position, position + 1)) {
+          E element = (E) elements[index];
+          elements[index] = null;
+          sequences.setRelease(index, position + elements.length);
+          return element;
+        }
+        position = head.get();
+      } else if (difference < 0) {
+        // Not published yet
+        return null;
+      } else {
+        position = head.get();
+      }
+    }
+  }
+
+  public void put(E element) throws InterruptedException {
+    for (int attempts = 0; !offer(element); attempts++) {
+      waitStrategy.await(attempts);
+    }
+  }
+
+  public E take() throws InterruptedException {
+    E element;
+    for (int attempts = 0; (element = poll()) == null; attempts++) {
+      waitStrategy.await(attempts);
+    }
+    return element;
+  }
+
+  /**
+   * Moves up to {@code maxElements} published elements into {@code target}
+   * without waiting. The whole run of slots is claimed with a single CAS on
+   * the head, so a consumer pays for one contended operation per batch
+   * rather than per element.
+   *
+   * @return the number of elements transferred
+   */
+  @SuppressWarnings("unchecked")
+  public int drainTo(Collection<? super E> target, int maxElements) {
+    while (true) {
+      long position = head.get();
+      // Count the contiguous published slots from the head
+      int available = 0;
+      while (available < maxElements && available < elements.length) {
+        int index = (int) (position + available) & mask;
+        if (sequences.getAcquire(index) != position + available + 1) {
+          break;
+        }
+        available++;
+      }
+      if (available == 0) {
+        return 0;
+      }
+      // Nobody else can claim these slots once the head has moved past them
+      if (head.compareAndSet(position, position + available)) {
+        for (int i = 0; i < available; i++) {
+          int index = (int) (position + i) & mask;
+          target.add((E) elements[index]);
+          elements[index] = null;
+          sequences.setRelease(index, position + i + elements.length);
+        }
+        return available;
+      }
+    }
+  }
+
+  public int capacity() {
+    return elements.length;
+  }
+
+  /**
+   * Approximate number of elements, exact only when no thread is writing.
+   */
+  public int size() {
+    long size = tail.get() - head.get();
+    return (int) Math.max(0, Math.min(size, elements.length));
+  }
+}
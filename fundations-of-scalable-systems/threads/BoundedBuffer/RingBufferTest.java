@@ -0,0 +1,49 @@
+package producerconsumerex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the smallest ring sizes, where a one-slot ring used to overwrite
+ * unconsumed elements and then spin forever in poll. Run with
+ * {@code java producerconsumerex.RingBufferTest}; throws on failure.
+ */
+public class RingBufferTest {
+
+  public static void main(String[] args) {
+    for (int capacity : new int[] { 1, 2 }) {
+      offerTwiceThenPoll(capacity);
+      offerTwiceThenDrain(capacity);
+    }
+    System.out.println("RingBufferTest passed");
+  }
+
+  private static void offerTwiceThenPoll(int capacity) {
+    RingBuffer<String> ring = new RingBuffer<>(capacity, WaitStrategy.SPIN);
+    check(ring.capacity() == 2, capacity, "rounds up to 2 slots, got " + ring.capacity());
+    check(ring.offer("a"), capacity, "first offer accepted");
+    check(ring.offer("b"), capacity, "second offer accepted");
+    check(!ring.offer("c"), capacity, "third offer rejected while full");
+    check("a".equals(ring.poll()), capacity, "first poll returns a");
+    check("b".equals(ring.poll()), capacity, "second poll returns b");
+    check(ring.poll() == null, capacity, "poll on empty returns null");
+  }
+
+  private static void offerTwiceThenDrain(int capacity) {
+    RingBuffer<String> ring = new RingBuffer<>(capacity, WaitStrategy.SPIN);
+    ring.offer("a");
+    ring.offer("b");
+    List<String> drained = new ArrayList<>();
+    check(ring.drainTo(drained, 10) == 2, capacity, "drains both elements");
+    check(drained.equals(List.of("a", "b")), capacity, "drains in order, got " + drained);
+    check(ring.drainTo(drained, 10) == 0, capacity, "nothing left to drain");
+    // The slots are usable on the next lap
+    check(ring.offer("c") && "c".equals(ring.poll()), capacity, "reuses slots after draining");
+  }
+
+  private static void check(boolean condition, int capacity, String what) {
+    if (!condition) {
+      throw new AssertionError("capacity " + capacity + ": " + what);
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package producerconsumerex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * One step of a {@link Pipeline}: a bounded input buffer and a fixed number
+ * of workers. Each worker takes up to batchSize messages, applies the stage
+ * function to each one, and hands the results downstream in a single
+ * putAll. When the downstream buffer is full, that putAll blocks. The
+ * workers stop taking input, this stage's buffer fills up, and the pressure
+ * propagates to whoever feeds it.
+ *
+ * A function that returns null drops the message. A function that throws
+ * counts as a failure and the rest of the batch carries on.
+ */
+public class Stage<T, R> {
+
+  private final String name;
+  private final BoundedBuffer<T> input;
+  private final int workers;
+  private final int batchSize;
+  private final Function<? super T, ? extends R> function;
+  // Null for the last stage
+  private final BoundedBuffer<R> output;
+
+  private final LongAdder processed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final AtomicInteger running = new AtomicInteger();
+  private final List<Thread> threads = new ArrayList<>();
+  private volatile long startedNanos;
+  private volatile long stoppedNanos;
+
+  Stage(String name, int capacity, int workers, int batchSize, Function<? super T, ? extends R> function,
+      BoundedBuffer<R> output) {
+    if (workers < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("workers and batchSize must be positive");
+    }
+    this.name = name;
+    this.input = new BoundedBuffer<>(capacity);
+    this.workers = workers;
+    this.batchSize = batchSize;
+    this.function = function;
+    this.output = output;
+  }
+
+  void start() {
+    startedNanos = System.nanoTime();
+    running.set(workers);
+    for (int i = 0; i < workers; i++) {
+      Thread thread = new Thread(this::work, name + "-" + i);
+      threads.add(thread);
+      thread.start();
+    }
+  }
+
+  private void work() {
+    List<R> results = new ArrayList<>(batchSize);
+    try {
+      // An empty batch means upstream closed this stage and it is drained
+      for (List<T> batch = input.retrieveUpTo(batchSize); !batch.isEmpty(); batch = input.retrieveUpTo(batchSize)) {
+        for (T message : batch) {
+          try {
+            R result = function.apply(message);
+            if (result != null) {
+              results.add(result);
+            }
+            processed.increment();
+          } catch (RuntimeException e) {
+            failed.increment();
+          }
+        }
+        if (output != null && !results.isEmpty()) {
+          output.putAll(results);
+        }
+        results.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      // The last worker out closes the next stage, which then drains in turn
+      if (running.decrementAndGet() == 0) {
+        stoppedNanos = System.nanoTime();
+        if (output != null) {
+          output.close();
+        }
+      }
+    }
+  }
+
+  BoundedBuffer<T> input() {
+    return input;
+  }
+
+  List<Thread> threads() {
+    return threads;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getWorkers() {
+    return workers;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Messages waiting in this stage's input buffer.
+   */
+  public int getQueueDepth() {
+    return input.size();
+  }
+
+  public int getCapacity() {
+    return input.capacity();
+  }
+
+  public long getProcessed() {
+    return processed.sum();
+  }
+
+  public long getFailed() {
+    return failed.sum();
+  }
+
+  /**
+   * Messages processed per second since the stage started, up to when its
+   * last worker stopped.
+   */
+  public double getThroughput() {
+    long started = startedNanos;
+    if (started == 0) {
+      return 0;
+    }
+    long stopped = stoppedNanos;
+    long elapsed = (stopped == 0 ? System.nanoTime() : stopped) - started;
+    return elapsed == 0 ? 0 : getProcessed() / (elapsed / 1e9);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%-10s workers=%-3d batch=%-4d depth=%4d/%-4d processed=%-10d failed=%-4d %,.0f msgs/s",
+        name, workers, batchSize, getQueueDepth(), getCapacity(), getProcessed(), getFailed(), getThroughput());
+  }
+}
@@ -0,0 +1,61 @@
+package producerconsumerex;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * What a thread does while a {@link RingBuffer} is full (producer) or empty
+ * (consumer). Called with the number of failed attempts so far, so each
+ * strategy can escalate from busy-waiting to giving up the core.
+ */
+public enum WaitStrategy {
+
+  // Lowest latency; burns a whole core per waiting thread, so only use it
+  // when producers and consumers together fit on the available cores
+  SPIN {
+    @Override
+    void idle(int attempts) {
+      Thread.onSpinWait();
+    }
+  },
+
+  // Spins briefly, then lets other runnable threads have the core
+  YIELD {
+    @Override
+    void idle(int attempts) {
+      if (attempts < SPIN_TRIES) {
+        Thread.onSpinWait();
+      } else {
+        Thread.yield();
+      }
+    }
+  },
+
+  // Spins briefly, then sleeps with exponential backoff up to MAX_PARK_NANOS.
+  // Cheapest on CPU, highest wake-up latency.
+  PARK {
+    @Override
+    void idle(int attempts) {
+      if (attempts < SPIN_TRIES) {
+        Thread.onSpinWait();
+      } else {
+        int shift = Math.min(attempts - SPIN_TRIES, 20);
+        LockSupport.parkNanos(Math.min(1L << shift, MAX_PARK_NANOS));
+      }
+    }
+  };
+
+  private static final int SPIN_TRIES = 100;
+  private static final long MAX_PARK_NANOS = 1_000_000;
+
+  abstract void idle(int attempts);
+
+  /**
+   * Waits once, failing fast if the thread was interrupted.
+   */
+  void await(int attempts) throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+    idle(attempts);
+  }
+}
@@ -0,0 +1,17 @@
+package counters;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AtomicCounter implements Counter {
+  private final AtomicInteger count = new AtomicInteger();
+
+  @Override
+  public void increment() {
+    count.incrementAndGet();
+  }
+
+  @Override
+  public long sum() {
+    return count.get();
+  }
+}
@@ -0,0 +1,36 @@
+package counters;
+
+/**
+ * A counter shared by many threads. Implementations trade write scalability
+ * against the cost and consistency of reading the total.
+ */
+public interface Counter {
+
+  void increment();
+
+  /**
+   * The current total. Exact once writers have stopped; while they run,
+   * only the synchronized and atomic counters give a point-in-time value.
+   */
+  long sum();
+
+  /**
+   * The implementations to choose from, by name.
+   */
+  enum Type {
+    // One monitor: every increment serializes on the lock and its cache line
+    SYNCHRONIZED,
+    // One CAS-updated word: lock-free, but still one contended cache line
+    ATOMIC,
+    // Padded cells spread over threads, summed on read
+    STRIPED;
+
+    public Counter create() {
+      return switch (this) {
+        case SYNCHRONIZED -> new SynchronizedCounter();
+        case ATOMIC -> new AtomicCounter();
+        case STRIPED -> new StripedCounter();
+      };
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package counters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * Increment throughput of each counter from one thread up to twice the
+ * available cores. Every thread increments as fast as it can for a fixed
+ * time; the best of several rounds is reported.
+ *
+ * Usage: CounterBenchmark [max-threads] [millis-per-round]
+ */
+public class CounterBenchmark {
+
+  private static final int ROUNDS = 5;
+
+  public static void main(String[] args) throws Exception {
+    int cores = Runtime.getRuntime().availableProcessors();
+    int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 2 * cores;
+    long millis = args.length > 1 ? Long.parseLong(args[1]) : 200;
+
+    System.out.printf("%d cores, %d ms per round%n", cores, millis);
+    System.out.printf("%-8s", "threads");
+    for (Counter.Type type : Counter.Type.values()) {
+      System.out.printf("%18s", type);
+    }
+    System.out.println("   (M increments/s)");
+    for (int threads : threadCounts(maxThreads, cores)) {
+      System.out.printf("%-8d", threads);
+      for (Counter.Type type : Counter.Type.values()) {
+        double best = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+          best = Math.max(best, run(type.create(), threads, millis));
+        }
+        System.out.printf("%18.1f", best / 1e6);
+      }
+      System.out.println();
+    }
+  }
+
+  // Powers of two, plus the core count itself
+  private static List<Integer> threadCounts(int max, int cores) {
+    List<Integer> counts = new ArrayList<>();
+    for (int n = 1; n <= max; n *= 2) {
+      counts.add(n);
+    }
+    if (cores <= max && !counts.contains(cores)) {
+      counts.add(cores);
+      counts.sort(null);
+    }
+    return counts;
+  }
+
+  private static double run(Counter counter, int threads, long millis) throws Exception {
+    CyclicBarrier start = new CyclicBarrier(threads + 1);
+    long[] done = new long[threads];
+    List<Thread> workers = new ArrayList<>();
+    long[] deadline = new long[1];
+    for (int t = 0; t < threads; t++) {
+      final int id = t;
+      Thread worker = new Thread(() -> {
+        try {
+          start.await();
+        } catch (Exception e) {
+          return;
+        }
+        long end = deadline[0];
+        long n = 0;
+        // Check the clock every 1024 increments to keep it off the hot path
+        while ((n & 1023) != 0 || System.nanoTime() < end) {
+          counter.increment();
+          n++;
+        }
+        done[id] = n;
+      });
+      workers.add(worker);
+      worker.start();
+    }
+    long started = System.nanoTime();
+    deadline[0] = started + millis * 1_000_000;
+    // The barrier publishes the deadline to the workers
+    start.await();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long elapsed = System.nanoTime() - started;
+
+    long total = 0;
+    for (long n : done) {
+      total += n;
+    }
+    if (counter.sum() != total) {
+      throw new IllegalStateException(counter + " lost increments: " + counter.sum() + " of " + total);
+    }
+    return total / (elapsed / 1e9);
+  }
+}
@@ -0,0 +1,134 @@
+package counters;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request totals plus rates over the last 1, 10 and 60 seconds, overall and
+ * per key (an endpoint, say).
+ *
+ * The number of keys is capped: once {@code maxKeys} distinct keys have been
+ * seen, new ones are counted together in a separate overflow series, so
+ * memory stays bounded whatever callers pass in. The overflow series is not
+ * a key, so no caller key can be mistaken for it. Recording a known key is a
+ * map lookup and a few CASes, with no allocation and no lock; reading a
+ * snapshot never blocks recording.
+ */
+public class RequestMetrics {
+
+  public static final int DEFAULT_MAX_KEYS = 1000;
+
+  private final Series all;
+  private final Series overflow;
+  private final ConcurrentMap<String, Series> byKey = new ConcurrentHashMap<>();
+  // Slots taken in byKey, reserved before each insert so the map never
+  // grows past maxKeys however many threads add new keys at once
+  private final AtomicInteger keys = new AtomicInteger();
+  private final int maxKeys;
+  private final Counter.Type counterType;
+
+  public RequestMetrics(Counter.Type counterType) {
+    this(counterType, DEFAULT_MAX_KEYS);
+  }
+
+  public RequestMetrics(Counter.Type counterType, int maxKeys) {
+    this.counterType = counterType;
+    this.maxKeys = maxKeys;
+    this.all = new Series(counterType.create());
+    this.overflow = new Series(counterType.create());
+  }
+
+  public void record() {
+    all.record();
+  }
+
+  public void record(String key) {
+    all.record();
+    Series series = byKey.get(key);
+    if (series == null) {
+      // Only the first request for a key allocates; past the cap the
+      // overflow series is used instead
+      series = keys.get() < maxKeys
+          ? byKey.computeIfAbsent(key, k -> reserveKey() ? new Series(counterType.create()) : null)
+          : null;
+      if (series == null) {
+        series = overflow;
+      }
+    }
+    series.record();
+  }
+
+  private boolean reserveKey() {
+    return keys.getAndUpdate(taken -> taken < maxKeys ? taken + 1 : taken) < maxKeys;
+  }
+
+  public long total() {
+    return all.total.sum();
+  }
+
+  /**
+   * A point-in-time view, assembled without stopping writers. Counts
+   * recorded while it is taken may or may not be included.
+   */
+  public Snapshot snapshot() {
+    Map<String, Rates> rates = new LinkedHashMap<>();
+    byKey.entrySet().stream()
+        .sorted(Map.Entry.comparingByKey())
+        .forEach(entry -> rates.put(entry.getKey(), entry.getValue().rates()));
+    return new Snapshot(all.rates(), Collections.unmodifiableMap(rates), overflow.rates());
+  }
+
+  /**
+   * Total and requests per second over the standard windows.
+   */
+  public record Rates(long total, double perSecond1s, double perSecond10s, double perSecond60s) {
+
+    @Override
+    public String toString() {
+      return String.format("total=%d  1s=%.1f/s  10s=%.1f/s  60s=%.1f/s", total, perSecond1s, perSecond10s,
+          perSecond60s);
+    }
+  }
+
+  /**
+   * @param otherKeys requests for keys past the cap, counted together
+   */
+  public record Snapshot(Rates all, Map<String, Rates> byKey, Rates otherKeys) {
+
+    @Override
+    public String toString() {
+      StringBuilder text = new StringBuilder("all: ").append(all);
+      byKey.forEach((key, rates) -> text.append(System.lineSeparator()).append(key).append(": ").append(rates));
+      if (otherKeys.total() > 0) {
+        text.append(System.lineSeparator()).append("(other keys): ").append(otherKeys);
+      }
+      return text.toString();
+    }
+  }
+
+  private static final class Series {
+    private final Counter total;
+    private final WindowedCounter window = new WindowedCounter();
+
+    Series(Counter total) {
+      this.total = total;
+    }
+
+    void record() {
+      total.increment();
+      window.record();
+    }
+
+    Rates rates() {
+      return new Rates(total.sum(),
+          window.rate(1, TimeUnit.SECONDS),
+          window.rate(10, TimeUnit.SECONDS),
+          window.rate(60, TimeUnit.SECONDS));
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package counters;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Counter split into cells, in the style of {@link java.util.concurrent.atomic.LongAdder}.
+ * Each thread adds to the cell it hashes to, so threads on different
+ * cores mostly update different cache lines, and a read sums every cell.
+ *
+ * Cells are padded to a cache line each (the fields are laid out superclass
+ * first, so the value sits between two blocks of padding). Without the
+ * padding, neighbouring cells would share a line and writers would still
+ * contend on it ("false sharing"), which is the same cost the striping is
+ * meant to remove.
+ */
+public class StripedCounter implements Counter {
+
+  private static final VarHandle VALUE;
+
+  static {
+    try {
+      VALUE = MethodHandles.lookup().findVarHandle(ValueField.class, "value", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final Cell[] cells;
+  private final int mask;
+
+  /**
+   * Sized at twice the available cores, so collisions between running
+   * threads are rare.
+   */
+  public StripedCounter() {
+    this(2 * Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param stripes rounded up to the next power of two
+   */
+  public StripedCounter(int stripes) {
+    int size = Math.max(1, Integer.highestOneBit(Math.max(1, stripes) - 1) << 1);
+    cells = new Cell[size];
+    for (int i = 0; i < size; i++) {
+      cells[i] = new Cell();
+    }
+    mask = size - 1;
+  }
+
+  @Override
+  public void increment() {
+    // An atomic add never retries, so a collision only costs a shared line
+    VALUE.getAndAdd(cells[index()], 1L);
+  }
+
+  @Override
+  public long sum() {
+    long sum = 0;
+    for (Cell cell : cells) {
+      sum += (long) VALUE.getVolatile(cell);
+    }
+    return sum;
+  }
+
+  private int index() {
+    // Fixed per thread; the multiply spreads nearby hashes over the cells
+    int h = System.identityHashCode(Thread.currentThread()) * 0x9E3779B9;
+    return (h >>> 16) & mask;
+  }
+
+  // 64-byte lines: 7 longs on each side keep the value alone on its line
+  static class LeftPadding {
+    long p01, p02, p03, p04, p05, p06, p07;
+  }
+
+  static class ValueField extends LeftPadding {
+    volatile long value;
+  }
+
+  static final class Cell extends ValueField {
+    long p11, p12, p13, p14, p15, p16, p17;
+  }
+}
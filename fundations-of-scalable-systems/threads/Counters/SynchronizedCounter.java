@@ -0,0 +1,15 @@
+package counters;
+
+public class SynchronizedCounter implements Counter {
+  private int count = 0;
+
+  @Override
+  public synchronized void increment() {
+    count++;
+  }
+
+  @Override
+  public synchronized long sum() {
+    return count;
+  }
+}
@@ -0,0 +1,121 @@
+package counters;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Event counts over sliding time windows, kept in a fixed ring of time
+ * buckets.
+ *
+ * Each bucket is a single long packing the time slot it belongs to (high 32
+ * bits) with its count (low 32 bits), so a writer checks the slot and
+ * increments, or claims a stale bucket for the current slot, in one CAS.
+ * Nothing is ever reset separately, so no increment can be lost between a
+ * reset and a write. Recording allocates nothing and never blocks. Reads
+ * just load the buckets and skip any whose slot has fallen out of the
+ * window, so they never block writers either.
+ *
+ * Memory is fixed at one long per bucket: with the defaults, 100 ms buckets
+ * over 60 s take 600 longs. A bucket counts at most 2^32 - 1 events; beyond
+ * that it stays at the maximum rather than carrying into the slot bits.
+ */
+public class WindowedCounter {
+
+  public static final long DEFAULT_RESOLUTION_MILLIS = 100;
+  public static final long DEFAULT_SPAN_SECONDS = 60;
+
+  private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+  private final AtomicLongArray buckets;
+  private final long resolutionNanos;
+  private final LongSupplier clock;
+  private final long origin;
+
+  public WindowedCounter() {
+    this(DEFAULT_RESOLUTION_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_SPAN_SECONDS, TimeUnit.SECONDS, System::nanoTime);
+  }
+
+  /**
+   * @param resolution bucket width, the granularity windows move by
+   * @param span       longest window that can be read
+   * @param clock      nanosecond time source
+   */
+  public WindowedCounter(long resolution, TimeUnit resolutionUnit, long span, TimeUnit spanUnit,
+      LongSupplier clock) {
+    this.resolutionNanos = resolutionUnit.toNanos(resolution);
+    if (resolutionNanos <= 0 || spanUnit.toNanos(span) < resolutionNanos) {
+      throw new IllegalArgumentException("span must cover at least one bucket");
+    }
+    // One spare bucket: the current one is only partly filled
+    int size = (int) Math.min(Integer.MAX_VALUE, spanUnit.toNanos(span) / resolutionNanos + 1);
+    this.buckets = new AtomicLongArray(size);
+    this.clock = clock;
+    // Slot 0 starts now; slots are tagged from 1 so an empty bucket matches none
+    this.origin = clock.getAsLong() - resolutionNanos;
+  }
+
+  public void record() {
+    record(1);
+  }
+
+  public void record(int events) {
+    if (events < 0) {
+      throw new IllegalArgumentException("events must not be negative: " + events);
+    }
+    long slot = slot(clock.getAsLong());
+    int index = (int) (slot % buckets.length());
+    while (true) {
+      long bucket = buckets.get(index);
+      int age = (int) (slot - (bucket >>> 32));
+      long updated;
+      if (age <= 0) {
+        // Current slot, or a writer with a later clock reading already moved
+        // the bucket on: count the event there either way, saturating so the
+        // count never overflows into the slot.
+        long count = Math.min((bucket & COUNT_MASK) + events, COUNT_MASK);
+        updated = (bucket & ~COUNT_MASK) | count;
+      } else {
+        // The bucket still holds a previous lap, claim it for this slot
+        updated = slot << 32 | (events & COUNT_MASK);
+      }
+      if (buckets.compareAndSet(index, bucket, updated)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Events recorded within the last {@code window}, to the resolution of
+   * one bucket.
+   */
+  public long count(long window, TimeUnit unit) {
+    long now = slot(clock.getAsLong());
+    long slots = Math.min(buckets.length(), Math.max(1, unit.toNanos(window) / resolutionNanos));
+    long count = 0;
+    for (long slot = now; slot > now - slots && slot > 0; slot--) {
+      long bucket = buckets.get((int) (slot % buckets.length()));
+      if ((bucket >>> 32) == (slot & COUNT_MASK)) {
+        count += bucket & COUNT_MASK;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Events per second over the last {@code window}. The newest bucket is
+   * only partly elapsed, so the rate is taken over the time actually
+   * covered.
+   */
+  public double rate(long window, TimeUnit unit) {
+    long nanos = clock.getAsLong() - origin;
+    long slots = Math.min(buckets.length(), Math.max(1, unit.toNanos(window) / resolutionNanos));
+    long covered = Math.min((slots - 1) * resolutionNanos + nanos % resolutionNanos, nanos - resolutionNanos);
+    return covered <= 0 ? 0 : count(window, unit) / (covered / 1e9);
+  }
+
+  // Truncated to the 32 bits stored in a bucket; wraps after ~13 years at 100 ms
+  private long slot(long nanos) {
+    return ((nanos - origin) / resolutionNanos) & COUNT_MASK;
+  }
+}
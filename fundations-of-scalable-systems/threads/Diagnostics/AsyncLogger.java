@@ -0,0 +1,134 @@
+package diagnostics;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import producerconsumerex.RingBuffer;
+import producerconsumerex.WaitStrategy;
+
+/**
+ * Logging that never does I/O on the caller's thread. log() only enqueues
+ * the format string and its arguments on a lock-free ring buffer. A
+ * background writer drains it in batches, formats the messages, and writes
+ * each batch with a single print, so callers never touch the stream's lock
+ * and never wait on the terminal. That makes it safe to call while holding
+ * other locks.
+ *
+ * When the buffer is full, messages are dropped and counted rather than
+ * blocking the caller.
+ */
+public class AsyncLogger implements AutoCloseable {
+
+  private static final int BATCH_SIZE = 256;
+  private static final long MIN_IDLE_NANOS = 10_000;
+  private static final long MAX_IDLE_NANOS = 1_000_000;
+  private static volatile AsyncLogger stdout;
+
+  private final RingBuffer<Entry> entries;
+  private final PrintStream out;
+  private final Thread writer;
+  private final LongAdder dropped = new LongAdder();
+  private volatile boolean closed;
+
+  private record Entry(String format, Object[] args) {
+  }
+
+  public AsyncLogger(PrintStream out, int capacity) {
+    this.out = out;
+    // Only offer and drainTo are used, neither ever waits
+    this.entries = new RingBuffer<>(capacity, WaitStrategy.PARK);
+    this.writer = new Thread(this::write, "async-logger");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Shared logger for System.out, flushed when the JVM exits.
+   */
+  public static AsyncLogger stdout() {
+    AsyncLogger logger = stdout;
+    if (logger == null) {
+      synchronized (AsyncLogger.class) {
+        logger = stdout;
+        if (logger == null) {
+          logger = new AsyncLogger(System.out, 1 << 16);
+          Runtime.getRuntime().addShutdownHook(new Thread(logger::close, "async-logger-flush"));
+          stdout = logger;
+        }
+      }
+    }
+    return logger;
+  }
+
+  /**
+   * Queues one line, formatted later with {@link String#format} on the
+   * writer thread.
+   */
+  public void log(String format, Object... args) {
+    if (closed || !entries.offer(new Entry(format, args))) {
+      dropped.increment();
+    }
+  }
+
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  private void write() {
+    List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+    StringBuilder text = new StringBuilder();
+    long idleNanos = MIN_IDLE_NANOS;
+    while (true) {
+      if (entries.drainTo(batch, BATCH_SIZE) == 0) {
+        if (closed) {
+          return;
+        }
+        // Back off while the log is quiet, up to a millisecond of latency
+        LockSupport.parkNanos(idleNanos);
+        idleNanos = Math.min(idleNanos * 2, MAX_IDLE_NANOS);
+        continue;
+      }
+      idleNanos = MIN_IDLE_NANOS;
+      for (Entry entry : batch) {
+        text.append(format(entry)).append(System.lineSeparator());
+      }
+      out.print(text);
+      out.flush();
+      batch.clear();
+      text.setLength(0);
+    }
+  }
+
+  // A bad format string or a throwing toString() must not kill the writer,
+  // which would silently drop every later message
+  private static String format(Entry entry) {
+    try {
+      return String.format(entry.format(), entry.args());
+    } catch (RuntimeException e) {
+      return "[unformattable] " + entry.format() + " (" + e + ")";
+    }
+  }
+
+  /**
+   * Stops accepting messages and waits until everything queued is written.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // Messages queued by callers that raced with the close
+    List<Entry> rest = new ArrayList<>();
+    entries.drainTo(rest, Integer.MAX_VALUE);
+    for (Entry entry : rest) {
+      out.println(format(entry));
+    }
+    out.flush();
+  }
+}
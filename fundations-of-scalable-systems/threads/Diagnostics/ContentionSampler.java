@@ -0,0 +1,120 @@
+package diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples every thread at a fixed rate and attributes contention to the lock
+ * each one is stuck on: a monitor for BLOCKED threads, or a
+ * java.util.concurrent lock or condition for parked ones. Per lock it keeps
+ * how often it had waiters, the most waiters seen at once, and the
+ * blocked/waited time the JVM measured for those threads since the previous
+ * sample.
+ *
+ * Each sample reads thread states without stacks, and the JVM's own
+ * contention monitoring only adds a timestamp per lock wait, so the sampler
+ * can stay on under load. Threads that wait and wake between two samples
+ * are missed, so counts are a statistical picture, not a trace.
+ */
+public class ContentionSampler implements AutoCloseable {
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private final ScheduledExecutorService scheduler;
+  private final Map<String, LockStats> locks = new ConcurrentHashMap<>();
+  // Per thread: blocked + waited millis at the previous sample. Only the
+  // sampler thread touches it.
+  private Map<Long, Long> lastWaitMillis = new HashMap<>();
+  private volatile long samples;
+
+  public ContentionSampler(long period, TimeUnit unit) {
+    if (threads.isThreadContentionMonitoringSupported()) {
+      threads.setThreadContentionMonitoringEnabled(true);
+    }
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+      Thread thread = new Thread(task, "contention-sampler");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleAtFixedRate(this::sample, period, period, unit);
+  }
+
+  static final class LockStats {
+    final String lock;
+    long samplesWithWaiters;
+    long totalWaiters;
+    int maxWaiters;
+    long waitMillis;
+
+    LockStats(String lock) {
+      this.lock = lock;
+    }
+  }
+
+  void sample() {
+    Map<String, Integer> waiters = new HashMap<>();
+    Map<String, Long> waited = new HashMap<>();
+    // Rebuilt every sample, so threads that ended drop out
+    Map<Long, Long> waitMillis = new HashMap<>();
+    for (ThreadInfo thread : threads.getThreadInfo(threads.getAllThreadIds(), 0)) {
+      if (thread == null) {
+        continue;
+      }
+      long total = Math.max(0, thread.getBlockedTime()) + Math.max(0, thread.getWaitedTime());
+      Long previous = lastWaitMillis.get(thread.getThreadId());
+      waitMillis.put(thread.getThreadId(), total);
+      String lock = thread.getLockName();
+      // Only waits on a lock someone else holds count as contention; a
+      // consumer idling on an empty buffer's monitor has no owner to blame
+      if (lock == null || thread.getLockOwnerId() == -1 && thread.getThreadState() != Thread.State.BLOCKED) {
+        continue;
+      }
+      waiters.merge(lock, 1, Integer::sum);
+      waited.merge(lock, previous == null ? 0 : total - previous, Long::sum);
+    }
+    lastWaitMillis = waitMillis;
+    waiters.forEach((lock, count) -> {
+      LockStats stats = locks.computeIfAbsent(lock, LockStats::new);
+      synchronized (stats) {
+        stats.samplesWithWaiters++;
+        stats.totalWaiters += count;
+        stats.maxWaiters = Math.max(stats.maxWaiters, count);
+        stats.waitMillis += waited.getOrDefault(lock, 0L);
+      }
+    });
+    samples++;
+  }
+
+  /**
+   * The {@code top} most contended locks, most waiter-samples first.
+   */
+  public String report(int top) {
+    List<LockStats> sorted = new ArrayList<>(locks.values());
+    sorted.sort(Comparator.comparingLong((LockStats stats) -> stats.totalWaiters).reversed());
+    StringBuilder report = new StringBuilder(String.format("Lock contention over %d samples:", samples));
+    report.append(System.lineSeparator()).append(String.format("  %-60s %10s %12s %12s %12s",
+        "lock", "contended", "avg waiters", "max waiters", "waited ms"));
+    for (LockStats stats : sorted.subList(0, Math.min(top, sorted.size()))) {
+      synchronized (stats) {
+        report.append(System.lineSeparator()).append(String.format("  %-60s %9.1f%% %12.2f %12d %12d",
+            stats.lock, 100.0 * stats.samplesWithWaiters / Math.max(1, samples),
+            (double) stats.totalWaiters / stats.samplesWithWaiters, stats.maxWaiters, stats.waitMillis));
+      }
+    }
+    return report.toString();
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+}
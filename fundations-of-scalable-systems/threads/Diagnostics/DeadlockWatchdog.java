@@ -0,0 +1,104 @@
+package diagnostics;
+
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Polls the JVM for deadlocked threads, both on monitors and on
+ * java.util.concurrent locks, and reports each deadlock cycle once: which
+ * thread holds which lock and waits for which other thread's, with the
+ * stack where each one is stuck.
+ *
+ * A check is a single findDeadlockedThreads call, which only walks the
+ * current lock-ownership graph; at one check per second it is cheap enough
+ * to leave running.
+ */
+public class DeadlockWatchdog implements AutoCloseable {
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private final ScheduledExecutorService scheduler;
+  private final Consumer<String> listener;
+  // Cycles already reported, as sorted thread-id lists
+  private final Set<String> reported = new HashSet<>();
+
+  /**
+   * @param listener receives the report of each newly found deadlock
+   */
+  public DeadlockWatchdog(long period, TimeUnit unit, Consumer<String> listener) {
+    this.listener = listener;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+      Thread thread = new Thread(task, "deadlock-watchdog");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::check, period, period, unit);
+  }
+
+  /**
+   * Reports to stderr and exits with status 1: turns a silent hang into a
+   * failure with a diagnosis.
+   */
+  public static DeadlockWatchdog exitOnDeadlock() {
+    return new DeadlockWatchdog(1, TimeUnit.SECONDS, report -> {
+      System.err.println(report);
+      Runtime.getRuntime().halt(1);
+    });
+  }
+
+  void check() {
+    long[] ids = threads.findDeadlockedThreads();
+    if (ids == null) {
+      return;
+    }
+    long[] sorted = ids.clone();
+    Arrays.sort(sorted);
+    if (!reported.add(Arrays.toString(sorted))) {
+      return;
+    }
+    listener.accept(describe(threads.getThreadInfo(ids, true, true)));
+  }
+
+  static String describe(ThreadInfo[] cycle) {
+    StringBuilder report = new StringBuilder("DEADLOCK between " + cycle.length + " threads:");
+    for (ThreadInfo thread : cycle) {
+      if (thread == null) {
+        continue;
+      }
+      report.append(System.lineSeparator())
+          .append("  \"").append(thread.getThreadName()).append("\" holds ").append(held(thread))
+          .append(", waits for ").append(thread.getLockName())
+          .append(" held by \"").append(thread.getLockOwnerName()).append('"');
+      StackTraceElement[] stack = thread.getStackTrace();
+      for (int i = 0; i < Math.min(stack.length, 3); i++) {
+        report.append(System.lineSeparator()).append("      at ").append(stack[i]);
+      }
+    }
+    return report.toString();
+  }
+
+  private static String held(ThreadInfo thread) {
+    Set<String> locks = new LinkedHashSet<>();
+    for (LockInfo monitor : thread.getLockedMonitors()) {
+      locks.add(monitor.toString());
+    }
+    for (LockInfo synchronizer : thread.getLockedSynchronizers()) {
+      locks.add(synchronizer.toString());
+    }
+    return locks.isEmpty() ? "nothing" : String.join(", ", locks);
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+}
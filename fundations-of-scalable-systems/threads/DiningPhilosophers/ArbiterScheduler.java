@@ -0,0 +1,142 @@
+package dining.philosophers;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The "waiter" solution: one arbiter hands out resources, and a worker only
+ * ever holds all of its resources or none of them, so there is no deadlock.
+ *
+ * Requests are granted first come, first served, but not strictly in
+ * sequence. A later request may go ahead of waiting ones as long as it
+ * needs none of the resources they are waiting for. Once a request is
+ * queued, nobody who arrives later can take its resources, so every
+ * request is eventually granted and no worker starves.
+ */
+public class ArbiterScheduler implements ResourceScheduler {
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final boolean[] inUse;
+  // Resources claimed by queued requests while scanning the queue
+  private final boolean[] reserved;
+  private final Deque<Request> waiting = new ArrayDeque<>();
+
+  public ArbiterScheduler(int resources) {
+    inUse = new boolean[resources];
+    reserved = new boolean[resources];
+  }
+
+  private final class Request {
+    final int[] resources;
+    final Condition granted = lock.newCondition();
+    boolean done;
+
+    Request(int[] resources) {
+      this.resources = resources;
+    }
+  }
+
+  @Override
+  public void run(int[] resources, Runnable action) throws InterruptedException {
+    acquire(resources);
+    try {
+      action.run();
+    } finally {
+      release(resources);
+    }
+  }
+
+  private void acquire(int[] resources) throws InterruptedException {
+    lock.lock();
+    try {
+      if (waiting.isEmpty() && allFree(resources)) {
+        take(resources);
+        return;
+      }
+      Request request = new Request(resources);
+      waiting.addLast(request);
+      // Something may be grantable already, possibly this request
+      grant();
+      while (!request.done) {
+        try {
+          request.granted.await();
+        } catch (InterruptedException e) {
+          if (request.done) {
+            // Granted while being interrupted: hand the resources back
+            release(resources);
+          } else {
+            waiting.remove(request);
+            grant();
+          }
+          throw e;
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void release(int[] resources) {
+    lock.lock();
+    try {
+      for (int resource : resources) {
+        inUse[resource] = false;
+      }
+      grant();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Walks the queue in arrival order, granting every request whose
+  // resources are free and not wanted by an earlier waiter. Caller holds the
+  // lock.
+  private void grant() {
+    for (Iterator<Request> it = waiting.iterator(); it.hasNext();) {
+      Request request = it.next();
+      if (allFree(request.resources) && noneReserved(request.resources)) {
+        take(request.resources);
+        request.done = true;
+        request.granted.signal();
+        it.remove();
+      } else {
+        for (int resource : request.resources) {
+          reserved[resource] = true;
+        }
+      }
+    }
+    // Only requests still queued marked anything
+    for (Request request : waiting) {
+      for (int resource : request.resources) {
+        reserved[resource] = false;
+      }
+    }
+  }
+
+  private boolean allFree(int[] resources) {
+    for (int resource : resources) {
+      if (inUse[resource]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean noneReserved(int[] resources) {
+    for (int resource : resources) {
+      if (reserved[resource]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void take(int[] resources) {
+    for (int resource : resources) {
+      inUse[resource] = true;
+    }
+  }
+}
@@ -1,6 +1,8 @@
 
 package dining.philosophers;
 
+import diagnostics.DeadlockWatchdog;
+
 //
 // Deadlocked implementation of Dining Philosophers
 //
@@ -10,6 +12,8 @@ public class DeadlockDiningPhilosophers {
   private final static int NUMPHILOSOPHERS = 5;
 
   public static void main(String[] args) throws Exception {
+    // Instead of hanging silently, print the lock cycle and exit with 1
+    DeadlockWatchdog.exitOnDeadlock();
 
     final Philosopher[] ph = new Philosopher[NUMPHILOSOPHERS];
     Object[] chopSticks = new Object[NUMCHOPSTICKS];
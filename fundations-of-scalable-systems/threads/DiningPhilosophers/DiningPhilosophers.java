@@ -1,5 +1,10 @@
 package dining.philosophers;
 
+import java.util.concurrent.TimeUnit;
+
+import diagnostics.ContentionSampler;
+import diagnostics.DeadlockWatchdog;
+
 //
 // Correct implementation of Dining Philosophers
 //
@@ -10,6 +15,10 @@ public class DiningPhilosophers {
   private final static int NUMPHILOSOPHERS = 5;
 
   public static void main(String[] args) throws Exception {
+    DeadlockWatchdog.exitOnDeadlock();
+    // Runs until interrupted; shows which chopsticks were fought over on exit
+    ContentionSampler sampler = new ContentionSampler(100, TimeUnit.MILLISECONDS);
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(sampler.report(NUMCHOPSTICKS))));
 
     final Philosopher[] ph = new Philosopher[NUMPHILOSOPHERS];
     Object[] chopSticks = new Object[NUMCHOPSTICKS];
@@ -0,0 +1,89 @@
+package dining.philosophers;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import diagnostics.AsyncLogger;
+
+/**
+ * How long philosophers hold their chopsticks when they log the way
+ * Philosopher does (three events per meal, all inside the locks), with a
+ * synchronous PrintStream and with the AsyncLogger. The lines go to a
+ * temporary file in both cases, and there is no sleeping, so the critical
+ * section is only locking and logging.
+ *
+ * Usage: LoggingBenchmark [philosophers] [meals-per-philosopher]
+ */
+public class LoggingBenchmark {
+
+  interface Log {
+    void log(String format, Object... args);
+  }
+
+  public static void main(String[] args) throws Exception {
+    int philosophers = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+    int meals = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+    for (int round = 0; round < 2; round++) {
+      // The first round is warm-up
+      boolean report = round == 1;
+      Path file = Files.createTempFile("philosophers", ".log");
+      try (PrintStream out = new PrintStream(new FileOutputStream(file.toFile()), true)) {
+        double sync = run(philosophers, meals, (format, a) -> out.println(String.format(format, a)));
+        if (report) {
+          System.out.printf("synchronous println: %8.0f ns held per meal%n", sync);
+        }
+      }
+      try (PrintStream out = new PrintStream(new FileOutputStream(file.toFile()), true);
+          // Room for every line, so the comparison never drops any
+          AsyncLogger logger = new AsyncLogger(out, 1 << 19)) {
+        double async = run(philosophers, meals, logger::log);
+        if (report) {
+          System.out.printf("AsyncLogger:         %8.0f ns held per meal (%d lines dropped)%n", async,
+              logger.getDropped());
+        }
+      }
+      Files.delete(file);
+    }
+  }
+
+  // Average nanoseconds from taking both chopsticks to putting them down
+  private static double run(int philosophers, int meals, Log log) throws IOException, InterruptedException {
+    Object[] chopSticks = new Object[philosophers];
+    for (int i = 0; i < philosophers; i++) {
+      chopSticks[i] = new Object();
+    }
+    LongAdder heldNanos = new LongAdder();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < philosophers; i++) {
+      // Ordered acquisition, as in DiningPhilosophers
+      Object first = chopSticks[Math.min(i, (i + 1) % philosophers)];
+      Object second = chopSticks[Math.max(i, (i + 1) % philosophers)];
+      threads.add(new Thread(() -> {
+        String name = Thread.currentThread().getName();
+        for (int meal = 0; meal < meals; meal++) {
+          synchronized (first) {
+            synchronized (second) {
+              long picked = System.nanoTime();
+              log.log("%s %s", name, ": Picked up right chopstick - eating");
+              log.log("%s %s", name, ": Put down right chopstick");
+              log.log("%s %s", name, ": Put down left chopstick. Ate too much");
+              heldNanos.add(System.nanoTime() - picked);
+            }
+          }
+        }
+      }, "Philosopher " + i));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    return heldNanos.sum() / (double) (philosophers * meals);
+  }
+}
@@ -0,0 +1,38 @@
+package dining.philosophers;
+
+import java.util.Arrays;
+
+/**
+ * The DiningPhilosophers approach, generalised: one monitor per resource,
+ * always entered in ascending id order, so no circular wait can form.
+ * Fairness is whatever the JVM's monitors give, which is none.
+ */
+public class OrderedMonitorScheduler implements ResourceScheduler {
+
+  private final Object[] monitors;
+
+  public OrderedMonitorScheduler(int resources) {
+    monitors = new Object[resources];
+    for (int i = 0; i < resources; i++) {
+      monitors[i] = new Object();
+    }
+  }
+
+  @Override
+  public void run(int[] resources, Runnable action) {
+    int[] ordered = resources.clone();
+    Arrays.sort(ordered);
+    runFrom(ordered, 0, action);
+  }
+
+  // Monitors are block-structured, so nesting is done by recursion
+  private void runFrom(int[] ordered, int next, Runnable action) {
+    if (next == ordered.length) {
+      action.run();
+      return;
+    }
+    synchronized (monitors[ordered[next]]) {
+      runFrom(ordered, next + 1, action);
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package dining.philosophers;
 
+import diagnostics.AsyncLogger;
+
 // 
 // Thread to represent behavior of a single philosopher
 //
@@ -14,8 +16,10 @@ public class Philosopher implements Runnable {
     this.rightChopStick = rightChopStick;
   }
 
+  // Called with chopsticks held: the logger only queues the line, the
+  // console write happens on its own thread
   private void LogEvent(String event) throws InterruptedException {
-    System.out.println(Thread.currentThread().getName() + " " + event);
+    AsyncLogger.stdout().log("%s %s", Thread.currentThread().getName(), event);
     Thread.sleep(SLEEPYTIME);
   }
 
@@ -0,0 +1,18 @@
+package dining.philosophers;
+
+/**
+ * Grants a worker exclusive use of several shared resources at once (the
+ * two chopsticks of a philosopher, generalised to any set of resources out
+ * of M), without ever deadlocking.
+ */
+public interface ResourceScheduler {
+
+  /**
+   * Runs {@code action} while holding every resource in {@code resources},
+   * waiting as long as it takes to get them all.
+   *
+   * @param resources ids between 0 and the scheduler's resource count, no
+   *                  duplicates
+   */
+  void run(int[] resources, Runnable action) throws InterruptedException;
+}
@@ -0,0 +1,95 @@
+package dining.philosophers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * N philosophers around a table of N chopsticks, each thinking and eating
+ * in a loop for a fixed time, under each {@link ResourceScheduler}. Per run
+ * it reports:
+ *
+ * - throughput: meals per second across the table
+ * - fairness: Jain's index over per-philosopher meal counts (1.0 when all
+ *   ate equally, 1/N when one philosopher ate everything) and the min/max
+ *   meal counts
+ * - starvation: how many philosophers never ate, and the longest time any
+ *   one of them waited for its chopsticks
+ *
+ * Usage: SchedulerBenchmark [seconds-per-run] [think-micros] [eat-micros]
+ */
+public class SchedulerBenchmark {
+
+  private static final int[] TABLE_SIZES = { 5, 50, 200, 1000 };
+
+  public static void main(String[] args) throws InterruptedException {
+    long runNanos = TimeUnit.SECONDS.toNanos(args.length > 0 ? Long.parseLong(args[0]) : 2);
+    long thinkNanos = TimeUnit.MICROSECONDS.toNanos(args.length > 1 ? Long.parseLong(args[1]) : 100);
+    long eatNanos = TimeUnit.MICROSECONDS.toNanos(args.length > 2 ? Long.parseLong(args[2]) : 10);
+
+    System.out.printf("%d cores, think %d us, eat %d us%n", Runtime.getRuntime().availableProcessors(),
+        TimeUnit.NANOSECONDS.toMicros(thinkNanos), TimeUnit.NANOSECONDS.toMicros(eatNanos));
+    System.out.printf("%-6s %-16s %12s %8s %8s %8s %8s %12s%n",
+        "N", "scheduler", "meals/s", "jain", "min", "max", "starved", "max wait ms");
+    for (int n : TABLE_SIZES) {
+      report(n, "ordered monitors", OrderedMonitorScheduler::new, runNanos, thinkNanos, eatNanos);
+      report(n, "tryLock+backoff", TryLockScheduler::new, runNanos, thinkNanos, eatNanos);
+      report(n, "arbiter", ArbiterScheduler::new, runNanos, thinkNanos, eatNanos);
+    }
+  }
+
+  private static void report(int n, String label, IntFunction<ResourceScheduler> factory, long runNanos,
+      long thinkNanos, long eatNanos) throws InterruptedException {
+    ResourceScheduler scheduler = factory.apply(n);
+    long[] meals = new long[n];
+    long[] maxWait = new long[n];
+    long deadline = System.nanoTime() + runNanos;
+
+    List<Thread> philosophers = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      final int id = i;
+      // Left and right chopstick, in the same (unordered) way for everyone
+      final int[] chopSticks = { i, (i + 1) % n };
+      Thread philosopher = new Thread(() -> {
+        try {
+          while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(thinkNanos);
+            long hungry = System.nanoTime();
+            scheduler.run(chopSticks, () -> {
+              maxWait[id] = Math.max(maxWait[id], System.nanoTime() - hungry);
+              busy(eatNanos);
+              meals[id]++;
+            });
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }, "Philosopher " + i);
+      philosophers.add(philosopher);
+    }
+    long started = System.nanoTime();
+    philosophers.forEach(Thread::start);
+    for (Thread philosopher : philosophers) {
+      philosopher.join();
+    }
+    double seconds = (System.nanoTime() - started) / 1e9;
+
+    long total = Arrays.stream(meals).sum();
+    double sumOfSquares = Arrays.stream(meals).mapToDouble(m -> (double) m * m).sum();
+    double jain = sumOfSquares == 0 ? 0 : (double) total * total / (n * sumOfSquares);
+    long starved = Arrays.stream(meals).filter(m -> m == 0).count();
+    System.out.printf("%-6d %-16s %,12.0f %8.3f %8d %8d %8d %12.1f%n",
+        n, label, total / seconds, jain, Arrays.stream(meals).min().getAsLong(),
+        Arrays.stream(meals).max().getAsLong(), starved, Arrays.stream(maxWait).max().getAsLong() / 1e6);
+  }
+
+  private static void busy(long nanos) {
+    long end = System.nanoTime() + nanos;
+    while (System.nanoTime() < end) {
+      Thread.onSpinWait();
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package dining.philosophers;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * All-or-nothing acquisition without any lock order: try every lock, and if
+ * one is taken, release the ones already held and back off for a random,
+ * exponentially growing time before trying again. Nobody ever waits while
+ * holding a lock, so there is no deadlock. The random backoff breaks the
+ * livelock where two workers keep grabbing and dropping in step. Nothing
+ * guarantees progress for an unlucky worker, though, so starvation is
+ * possible under heavy contention.
+ */
+public class TryLockScheduler implements ResourceScheduler {
+
+  private static final long MIN_BACKOFF_NANOS = 1_000;
+  private static final long MAX_BACKOFF_NANOS = 1_000_000;
+
+  private final ReentrantLock[] locks;
+
+  public TryLockScheduler(int resources) {
+    locks = new ReentrantLock[resources];
+    for (int i = 0; i < resources; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  @Override
+  public void run(int[] resources, Runnable action) throws InterruptedException {
+    acquire(resources);
+    try {
+      action.run();
+    } finally {
+      release(resources, resources.length);
+    }
+  }
+
+  private void acquire(int[] resources) throws InterruptedException {
+    long backoff = MIN_BACKOFF_NANOS;
+    while (true) {
+      int held = 0;
+      while (held < resources.length && locks[resources[held]].tryLock()) {
+        held++;
+      }
+      if (held == resources.length) {
+        return;
+      }
+      release(resources, held);
+      LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(backoff) + 1);
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+    }
+  }
+
+  private void release(int[] resources, int held) {
+    for (int i = held - 1; i >= 0; i--) {
+      locks[resources[i]].unlock();
+    }
+  }
+}
@@ -1,9 +1,11 @@
 
-class NamingTread implements Runnable {
+// Names threads by hand; threadpools.NamedThreadFactory does the same for
+// whole pools ("pool-0", "pool-1", ...)
+class NamingThread implements Runnable {
 
   private String name;
 
-  public NamingTread(String threadName) {
+  public NamingThread(String threadName) {
     name = threadName;
     System.out.println("Constructor called: " + threadName);
   }
@@ -1,30 +1,52 @@
 
+import counters.Counter;
+import counters.RequestMetrics;
+
 public class RequestCounter {
   final static private int NUMTHREADS = 50000;
-  private int count = 0;
+  // Totals (synchronized, atomic or striped; see counters.Counter.Type) and
+  // per-second rates, overall and per key
+  private final RequestMetrics metrics;
+
+  public RequestCounter() {
+    this(Counter.Type.SYNCHRONIZED);
+  }
+
+  public RequestCounter(Counter.Type type) {
+    this.metrics = new RequestMetrics(type);
+  }
 
-  synchronized public void inc() {
-    count++;
+  public void inc() {
+    metrics.record();
+  }
+
+  // Also counts the request under key, e.g. the endpoint it hit
+  public void inc(String key) {
+    metrics.record(key);
   }
 
   public int getVal() {
-    return this.count;
+    return (int) metrics.total();
   }
 
-  public static void main(String[] args) throws InterruptedException {
-    final RequestCounter counter = new RequestCounter();
-    for (int i = 0; i < NUMTHREADS; i++) {
-      // lambda runnable creation
-      Runnable thread = () -> {
-        counter.inc();
-      };
-      new Thread(thread).start();
-    }
-
-    // 5-second delay in main to allow the threads to finish:
-    Thread.sleep(5000);
-    System.out.println("Value should be " + NUMTHREADS + "It is: " + counter.getVal());
-    // the answer mostly will not be correct (arround 49999 or 98 ...) why?
+  public RequestMetrics.Snapshot getMetrics() {
+    return metrics.snapshot();
+  }
+
+  // Usage: RequestCounter [SYNCHRONIZED|ATOMIC|STRIPED]
+  public static void main(String[] args) {
+    Counter.Type type = args.length > 0 ? Counter.Type.valueOf(args[0].toUpperCase()) : Counter.Type.SYNCHRONIZED;
+    final RequestCounter counter = new RequestCounter(type);
+    // One short task per request; see RequestCounterDriver for how the
+    // execution models compare. The driver waits for every task, where this
+    // used to start 50k raw threads and sleep 5 seconds hoping they were done.
+    RequestCounterDriver.Result result = RequestCounterDriver.run(
+        RequestCounterDriver.Mode.VIRTUAL_THREADS, counter, NUMTHREADS);
+    System.out.println(result);
+    System.out.println("Value should be " + NUMTHREADS + " It is: " + counter.getVal());
+    System.out.println(counter.getMetrics());
+    // Every counter type prints the full count. A plain, unsynchronized
+    // count++ would mostly not be correct (around 49999 or 98...). Why?
     // The answer lies in how abstract, high-level programming language statements,
     // in Java in this case, are executed on a machine. In this example,
     // to perform an increment of a counter, the CPU must:
@@ -46,7 +68,6 @@ public class RequestCounter {
     // conditions can occur whenever multiple threads make changes to some shared
     // state, in this case a simple counter. Essentially, different interleavings of
     // the threads can produce different results.
-
     //
     // To fix the counterexample, you therefore just need to identify the
     // inc() method as a critical section and make it a synchronized method
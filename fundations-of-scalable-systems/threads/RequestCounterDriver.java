@@ -0,0 +1,92 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import counters.Counter;
+
+/**
+ * Issues N increments against a RequestCounter, one task per increment,
+ * under different execution models, and reports what each one costs. Every
+ * run waits for its executor to finish all tasks (ExecutorService.close),
+ * so the final count is checked, not hoped for.
+ *
+ * Peak threads counts platform threads only: virtual threads run on a
+ * small pool of carrier threads, which is what shows up there.
+ *
+ * Usage: RequestCounterDriver [increments] [SYNCHRONIZED|ATOMIC|STRIPED]
+ */
+public class RequestCounterDriver {
+
+  enum Mode {
+    // A new platform thread per task, as RequestCounter.main used to do
+    PLATFORM_THREADS,
+    // One platform thread per core, tasks queued in front of them
+    FIXED_POOL,
+    // Per-worker deques with work stealing
+    FORK_JOIN_POOL,
+    // A new virtual thread per task, mounted on a few carrier threads
+    VIRTUAL_THREADS;
+
+    ExecutorService executor() {
+      int cores = Runtime.getRuntime().availableProcessors();
+      return switch (this) {
+        case PLATFORM_THREADS -> Executors.newThreadPerTaskExecutor(Thread.ofPlatform().factory());
+        case FIXED_POOL -> Executors.newFixedThreadPool(cores);
+        case FORK_JOIN_POOL -> new ForkJoinPool(cores);
+        case VIRTUAL_THREADS -> Executors.newVirtualThreadPerTaskExecutor();
+      };
+    }
+  }
+
+  record Result(Mode mode, int increments, int counted, long wallNanos, int peakThreads, long peakHeapBytes) {
+
+    @Override
+    public String toString() {
+      return String.format("%-17s %9.1f ms %12.0f tasks/s %8d threads %8.1f MB heap  %s",
+          mode, wallNanos / 1e6, increments / (wallNanos / 1e9), peakThreads, peakHeapBytes / 1e6,
+          counted == increments ? "ok" : "LOST " + (increments - counted));
+    }
+  }
+
+  private static final String[] ENDPOINTS = { "GET /items", "GET /items/{sku}", "POST /items" };
+
+  public static Result run(Mode mode, RequestCounter counter, int increments) {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP)
+        .toList();
+    System.gc();
+    threads.resetPeakThreadCount();
+    heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+    long started = System.nanoTime();
+    try (ExecutorService executor = mode.executor()) {
+      for (int i = 0; i < increments; i++) {
+        String endpoint = ENDPOINTS[i % ENDPOINTS.length];
+        executor.execute(() -> counter.inc(endpoint));
+      }
+    } // close() waits for every submitted task
+    long wall = System.nanoTime() - started;
+
+    long peakHeap = heap.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    return new Result(mode, increments, counter.getVal(), wall, threads.getPeakThreadCount(), peakHeap);
+  }
+
+  public static void main(String[] args) {
+    int increments = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+    Counter.Type type = args.length > 1 ? Counter.Type.valueOf(args[1].toUpperCase()) : Counter.Type.STRIPED;
+
+    System.out.printf("%d increments on a %s counter, %d cores%n", increments, type,
+        Runtime.getRuntime().availableProcessors());
+    for (Mode mode : Mode.values()) {
+      // First run warms up the JIT and the executor code paths
+      run(mode, new RequestCounter(type), increments);
+      System.out.println(run(mode, new RequestCounter(type), increments));
+    }
+  }
+}
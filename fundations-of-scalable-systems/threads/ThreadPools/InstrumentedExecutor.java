@@ -0,0 +1,148 @@
+package threadpools;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An ExecutorService that counts what goes through the one it wraps. Each
+ * task is wrapped to record when it was submitted, started and finished;
+ * the counters are plain atomics, so the bookkeeping is a few uncontended
+ * increments per task.
+ */
+public class InstrumentedExecutor extends AbstractExecutorService implements PoolMetricsMXBean {
+
+  private final String name;
+  private final NamedThreadFactory.Kind kind;
+  private final ExecutorService delegate;
+  // Caps concurrently running tasks where the delegate itself does not
+  // (a thread per task); null otherwise
+  private final Semaphore permits;
+
+  private final LongAdder submitted = new LongAdder();
+  private final LongAdder started = new LongAdder();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder latencyNanos = new LongAdder();
+  private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+  InstrumentedExecutor(String name, NamedThreadFactory.Kind kind, ExecutorService delegate, Semaphore permits) {
+    this.name = name;
+    this.kind = kind;
+    this.delegate = delegate;
+    this.permits = permits;
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    long submittedAt = System.nanoTime();
+    submitted.increment();
+    try {
+      delegate.execute(() -> {
+        if (permits != null) {
+          // Waiting here counts as queued
+          permits.acquireUninterruptibly();
+        }
+        started.increment();
+        try {
+          task.run();
+        } finally {
+          if (permits != null) {
+            permits.release();
+          }
+          long latency = System.nanoTime() - submittedAt;
+          latencyNanos.add(latency);
+          maxLatencyNanos.accumulateAndGet(latency, Math::max);
+          completed.increment();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      submitted.decrement();
+      rejected.increment();
+      throw e;
+    }
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getThreadKind() {
+    return kind.name();
+  }
+
+  @Override
+  public long getActiveCount() {
+    return Math.max(0, started.sum() - completed.sum());
+  }
+
+  @Override
+  public long getQueueLength() {
+    return Math.max(0, submitted.sum() - started.sum());
+  }
+
+  @Override
+  public long getCompletedCount() {
+    return completed.sum();
+  }
+
+  @Override
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  @Override
+  public double getMeanTaskLatencyMillis() {
+    long count = completed.sum();
+    return count == 0 ? 0 : latencyNanos.sum() / 1e6 / count;
+  }
+
+  @Override
+  public double getMaxTaskLatencyMillis() {
+    return maxLatencyNanos.get() / 1e6;
+  }
+
+  @Override
+  public void resetMaxTaskLatency() {
+    maxLatencyNanos.set(0);
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%-12s %-8s active=%-5d queued=%-6d completed=%-9d rejected=%-6d mean=%.2fms max=%.2fms",
+        name, kind, getActiveCount(), getQueueLength(), getCompletedCount(), getRejectedCount(),
+        getMeanTaskLatencyMillis(), getMaxTaskLatencyMillis());
+  }
+}
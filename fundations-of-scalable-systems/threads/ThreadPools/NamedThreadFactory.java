@@ -0,0 +1,44 @@
+package threadpools;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates threads named after their pool and a running index
+ * ("orders-0", "orders-1", ...), so thread dumps, profilers and the
+ * contention sampler show which pool a thread belongs to. Threads are
+ * either platform threads (daemon, so a forgotten pool never keeps the JVM
+ * alive) or virtual threads.
+ */
+public class NamedThreadFactory implements ThreadFactory {
+
+  public enum Kind {
+    PLATFORM, VIRTUAL
+  }
+
+  private final String pool;
+  private final Kind kind;
+  private final ThreadFactory factory;
+
+  public NamedThreadFactory(String pool, Kind kind) {
+    this.pool = pool;
+    this.kind = kind;
+    // The builders' own counters number the threads, thread-safely
+    this.factory = switch (kind) {
+      case PLATFORM -> Thread.ofPlatform().name(pool + "-", 0).daemon(true).factory();
+      case VIRTUAL -> Thread.ofVirtual().name(pool + "-", 0).factory();
+    };
+  }
+
+  @Override
+  public Thread newThread(Runnable task) {
+    return factory.newThread(task);
+  }
+
+  public String getPool() {
+    return pool;
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+}
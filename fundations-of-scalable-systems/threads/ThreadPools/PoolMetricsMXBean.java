@@ -0,0 +1,34 @@
+package threadpools;
+
+/**
+ * Per-pool metrics published over JMX, one MXBean per pool under
+ * {@code threadpools:type=Pool,name=<pool>}. As an MXBean it can be
+ * implemented by any class and only exposes open types, so generic JMX
+ * clients can read it.
+ */
+public interface PoolMetricsMXBean {
+
+  String getName();
+
+  String getThreadKind();
+
+  // Tasks running right now
+  long getActiveCount();
+
+  // Tasks accepted but not started yet
+  long getQueueLength();
+
+  long getCompletedCount();
+
+  long getRejectedCount();
+
+  // Submission to completion, so queueing shows up as well as run time
+  double getMeanTaskLatencyMillis();
+
+  double getMaxTaskLatencyMillis();
+
+  /**
+   * Starts a new observation period for the maximum latency.
+   */
+  void resetMaxTaskLatency();
+}
@@ -0,0 +1,122 @@
+package threadpools;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Creates named, instrumented pools and keeps track of them. Every pool is
+ * registered as an MXBean under {@code threadpools:type=Pool,name=<pool>},
+ * so JConsole or any JMX scraper can show which pool is saturated: a
+ * growing queue length, rejections, or latency far above the task's own run
+ * time.
+ */
+public class PoolRegistry implements AutoCloseable {
+
+  private final MBeanServer server;
+  private final Map<String, InstrumentedExecutor> pools = new ConcurrentHashMap<>();
+
+  public PoolRegistry() {
+    this(ManagementFactory.getPlatformMBeanServer());
+  }
+
+  public PoolRegistry(MBeanServer server) {
+    this.server = server;
+  }
+
+  /**
+   * Platform threads with a bounded queue; tasks beyond it are rejected.
+   */
+  public InstrumentedExecutor fixed(String name, int threads, int queueCapacity) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory(name, NamedThreadFactory.Kind.PLATFORM),
+        new ThreadPoolExecutor.AbortPolicy());
+    return register(new InstrumentedExecutor(name, NamedThreadFactory.Kind.PLATFORM, executor, null));
+  }
+
+  /**
+   * A new virtual thread per task, at most {@code maxConcurrency} running
+   * at once (for example to protect a downstream connection pool); the
+   * rest wait, and show up as queued.
+   */
+  public InstrumentedExecutor virtual(String name, int maxConcurrency) {
+    return register(new InstrumentedExecutor(name, NamedThreadFactory.Kind.VIRTUAL,
+        Executors.newThreadPerTaskExecutor(new NamedThreadFactory(name, NamedThreadFactory.Kind.VIRTUAL)),
+        new Semaphore(maxConcurrency)));
+  }
+
+  private InstrumentedExecutor register(InstrumentedExecutor pool) {
+    if (pools.putIfAbsent(pool.getName(), pool) != null) {
+      pool.shutdownNow();
+      throw new IllegalArgumentException("pool already registered: " + pool.getName());
+    }
+    try {
+      server.registerMBean(pool, objectName(pool.getName()));
+    } catch (JMException e) {
+      pools.remove(pool.getName());
+      pool.shutdownNow();
+      throw new IllegalStateException("cannot register pool " + pool.getName(), e);
+    }
+    return pool;
+  }
+
+  public InstrumentedExecutor get(String name) {
+    return pools.get(name);
+  }
+
+  public List<InstrumentedExecutor> pools() {
+    return new ArrayList<>(pools.values());
+  }
+
+  /**
+   * One line per pool.
+   */
+  public String report() {
+    StringBuilder report = new StringBuilder();
+    pools.values().stream()
+        .sorted((a, b) -> a.getName().compareTo(b.getName()))
+        .forEach(pool -> report.append(pool).append(System.lineSeparator()));
+    return report.toString();
+  }
+
+  static ObjectName objectName(String pool) throws JMException {
+    return new ObjectName("threadpools:type=Pool,name=" + ObjectName.quote(pool));
+  }
+
+  /**
+   * Shuts every pool down, waits for running tasks, and unregisters the
+   * MBeans.
+   */
+  @Override
+  public void close() {
+    for (InstrumentedExecutor pool : pools.values()) {
+      pool.shutdown();
+    }
+    try {
+      for (InstrumentedExecutor pool : pools.values()) {
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for (InstrumentedExecutor pool : pools.values()) {
+      try {
+        server.unregisterMBean(objectName(pool.getName()));
+      } catch (JMException e) {
+        // Already gone
+      }
+    }
+    pools.clear();
+  }
+}
@@ -0,0 +1,53 @@
+package threadpools;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a small pool saturated by slow tasks next to a healthy one and a
+ * capped virtual-thread pool, printing the registry every second. Attach
+ * JConsole while it runs to see the same numbers under the threadpools
+ * domain.
+ *
+ * Usage: PoolRegistryDemo [seconds]
+ */
+public class PoolRegistryDemo {
+
+  public static void main(String[] args) throws InterruptedException {
+    int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+    try (PoolRegistry registry = new PoolRegistry()) {
+      InstrumentedExecutor cpu = registry.fixed("cpu", Runtime.getRuntime().availableProcessors(), 1000);
+      InstrumentedExecutor slowIo = registry.fixed("slow-io", 2, 50);
+      InstrumentedExecutor requests = registry.virtual("requests", 100);
+
+      long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+      long nextReport = System.nanoTime();
+      while (System.nanoTime() < end) {
+        submit(cpu, 0);
+        submit(slowIo, 20);
+        submit(requests, 5);
+        Thread.sleep(1);
+        if (System.nanoTime() >= nextReport) {
+          System.out.print(registry.report());
+          System.out.println();
+          nextReport += TimeUnit.SECONDS.toNanos(1);
+        }
+      }
+    }
+  }
+
+  private static void submit(InstrumentedExecutor pool, long millis) {
+    try {
+      pool.execute(() -> {
+        try {
+          Thread.sleep(ThreadLocalRandom.current().nextLong(millis + 1));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // Counted by the pool
+    }
+  }
+}